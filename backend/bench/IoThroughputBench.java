@@ -0,0 +1,111 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop HTTP load generator for comparing the pooled and virtual-thread
+ * modes on an I/O-bound endpoint.
+ *
+ * Runs as a single-file program (Java 17+):
+ *
+ * <pre>
+ * java bench/IoThroughputBench.java http://localhost:7860/api/events 200 30
+ * </pre>
+ *
+ * Arguments are the URL, the number of concurrent clients and the duration in
+ * seconds. Each client sends its next request as soon as the previous one
+ * completes; the first five seconds are a warm-up and are not counted.
+ */
+public class IoThroughputBench {
+
+    private static final int WARMUP_SECONDS = 5;
+
+    public static void main(String[] args) throws Exception {
+        URI uri = URI.create(args.length > 0 ? args[0] : "http://localhost:7860/api/events");
+        int clients = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+
+        HttpClient http = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(30)).GET().build();
+
+        long measureFrom = System.nanoTime() + WARMUP_SECONDS * 1_000_000_000L;
+        long deadline = measureFrom + seconds * 1_000_000_000L;
+        AtomicLong ok = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+        List<long[]> latencies = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+
+        for (int i = 0; i < clients; i++) {
+            long[] samples = new long[1 << 16];
+            latencies.add(samples);
+            Thread thread = new Thread(() -> {
+                int count = 0;
+                while (true) {
+                    long start = System.nanoTime();
+                    if (start >= deadline) {
+                        break;
+                    }
+                    boolean success;
+                    try {
+                        success = http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() < 400;
+                    } catch (Exception e) {
+                        success = false;
+                    }
+                    long end = System.nanoTime();
+                    if (start < measureFrom) {
+                        continue;
+                    }
+                    if (success) {
+                        ok.incrementAndGet();
+                        if (count < samples.length - 1) { // Last slot holds the count
+                            samples[count++] = end - start;
+                        }
+                    } else {
+                        failed.incrementAndGet();
+                    }
+                }
+                samples[samples.length - 1] = count;
+            }, "bench-client-" + i);
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        long total = 0;
+        for (long[] samples : latencies) {
+            total += samples[samples.length - 1];
+        }
+        long[] all = new long[(int) total];
+        int at = 0;
+        for (long[] samples : latencies) {
+            int count = (int) samples[samples.length - 1];
+            System.arraycopy(samples, 0, all, at, count);
+            at += count;
+        }
+        Arrays.sort(all);
+
+        System.out.printf("url=%s clients=%d seconds=%d%n", uri, clients, seconds);
+        System.out.printf("requests=%d failed=%d throughput=%.1f req/s%n", ok.get(), failed.get(),
+                ok.get() / (double) seconds);
+        System.out.printf("latency p50=%.1f ms p99=%.1f ms max=%.1f ms%n",
+                percentile(all, 0.50), percentile(all, 0.99), percentile(all, 1.0));
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1);
+        return sorted[Math.max(0, index)] / 1_000_000.0;
+    }
+}
@@ -0,0 +1,33 @@
+#!/bin/sh
+# Compares request throughput with the default thread pool and with virtual
+# threads. Needs a Java 21 JDK (the jar must be built with it too) and a
+# reachable MONGO_URI; the endpoint should be one that waits on Mongo.
+#
+#   MONGO_URI=mongodb://localhost:27017/snp sh bench/virtual-threads.sh
+set -e
+
+cd "$(dirname "$0")/.."
+URL_PATH=${URL_PATH:-/api/events}
+CLIENTS=${CLIENTS:-400}
+SECONDS_PER_RUN=${SECONDS_PER_RUN:-30}
+PORT=${PORT:-7999}
+# A small pool makes the difference visible on a laptop-sized Mongo
+TOMCAT_THREADS=${TOMCAT_THREADS:-50}
+# Bypass the list cache so every request reaches Mongo
+EXTRA_ARGS=${EXTRA_ARGS:---cache.lists.enabled=false --http.etag.enabled=false}
+
+[ -f target/backend.jar ] || mvn -B -q package -DskipTests
+
+for VIRTUAL in false true; do
+    java -jar target/backend.jar --server.port="$PORT" \
+        --server.tomcat.threads.max="$TOMCAT_THREADS" \
+        --spring.threads.virtual.enabled="$VIRTUAL" $EXTRA_ARGS > /tmp/bench-backend.log 2>&1 &
+    PID=$!
+    until curl -sf "http://localhost:$PORT/ping" > /dev/null; do
+        sleep 1
+    done
+    echo "== spring.threads.virtual.enabled=$VIRTUAL"
+    java bench/IoThroughputBench.java "http://localhost:$PORT$URL_PATH" "$CLIENTS" "$SECONDS_PER_RUN"
+    kill "$PID"
+    wait "$PID" 2>/dev/null || true
+done
@@ -0,0 +1,94 @@
+package com.snp.backend.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.snp.backend.model.ws.CursorMessage;
+import com.snp.backend.service.BoardDestinations;
+import com.snp.backend.service.CursorFrame;
+import com.snp.backend.service.LocalBoardBroadcaster;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.converter.ByteArrayMessageConverter;
+import org.springframework.messaging.converter.CompositeMessageConverter;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.converter.StringMessageConverter;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The work BoardSocketController.moveCursor does per cursor frame, up to
+ * the hand-off to the broker channel: the Jackson round trip it used to do
+ * for every frame, and the CursorFrame relay of the client's bytes. The
+ * broker's per-subscriber fan-out comes after and is the same for both.
+ *
+ * Run with the GC profiler to see allocation per frame
+ * (gc.alloc.rate.norm):
+ * mvn -P benchmarks test-compile exec:exec -Djmh.args="CursorRelay -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CursorRelayBenchmark {
+
+    private ObjectMapper mapper;
+    private SimpMessagingTemplate messagingTemplate;
+    private LocalBoardBroadcaster broadcaster;
+    private byte[] frame;
+
+    // Stands in for the broker channel; keeps the last message so it is not optimized away
+    private Message<?> sent;
+
+    @Setup
+    public void setUp() throws Exception {
+        mapper = Jackson2ObjectMapperBuilder.json().build();
+        MessageChannel brokerChannel = (message, timeout) -> {
+            sent = message;
+            return true;
+        };
+        // The converters Spring's broker configuration gives the template
+        MappingJackson2MessageConverter jackson = new MappingJackson2MessageConverter();
+        jackson.setObjectMapper(mapper);
+        messagingTemplate = new SimpMessagingTemplate(brokerChannel);
+        messagingTemplate.setMessageConverter(new CompositeMessageConverter(
+                List.of(new StringMessageConverter(), new ByteArrayMessageConverter(), jackson)));
+        broadcaster = new LocalBoardBroadcaster(messagingTemplate);
+
+        frame = mapper.writeValueAsBytes(
+                new CursorMessage("user-42@example.edu", "65f1c0ffee0000000000abcd", 812.5, 431.25, "#FF5722"));
+    }
+
+    @Benchmark
+    public Message<?> jacksonRelay() throws Exception {
+        CursorMessage message = mapper.readValue(frame, CursorMessage.class);
+        broadcaster.broadcast(BoardDestinations.cursors(message.getProjectId()), message);
+        return sent;
+    }
+
+    @Benchmark
+    public Message<?> frameRelay() {
+        CursorFrame cursor = CursorFrame.read(frame);
+        broadcaster.broadcastJson(cursor.destination(), cursor.json());
+        return sent;
+    }
+
+    // Parsing and destination lookup alone, without building the broker message
+    @Benchmark
+    public String frameRead() {
+        return CursorFrame.read(frame).destination();
+    }
+}
@@ -0,0 +1,105 @@
+package com.snp.backend.bench;
+
+import com.snp.backend.controller.AttendanceController;
+import com.snp.backend.model.Attendance;
+import com.snp.backend.model.Poll;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request-path logic that runs on every poll vote and attendance lookup:
+ * normalizing stored votes (legacy Integer or List) and matching a user's
+ * identifiers against every attendance session.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DomainLogicBenchmark {
+
+    // Attendance sessions on record, and students present at each
+    @Param({ "100", "1000" })
+    private int sessions;
+
+    @Param({ "40" })
+    private int classSize;
+
+    private Object legacyVote;
+    private Object listVote;
+    private Poll poll;
+
+    private List<Attendance> attendance;
+    private Set<String> identifiers;
+
+    @Setup
+    public void setUp() {
+        legacyVote = 2;
+        listVote = new ArrayList<>(List.of(0, 2, 3));
+
+        attendance = new ArrayList<>();
+        Instant start = Instant.parse("2024-01-08T09:00:00Z");
+        for (int s = 0; s < sessions; s++) {
+            List<String> present = new ArrayList<>();
+            for (int i = 0; i < classSize; i++) {
+                // Mixed identifier kinds, as written by different client versions
+                if ((i + s) % 5 == 0) {
+                    continue; // Absent
+                }
+                present.add(i % 3 == 0 ? "Student " + i : "student" + i + "@example.edu");
+            }
+            Attendance session = new Attendance(start.plusSeconds(86400L * s), present, "Session " + s);
+            session.setId(Integer.toHexString(0x65f1c000 + s));
+            attendance.add(session);
+        }
+        poll = new Poll("Which slots work?", List.of("Mon", "Tue", "Wed", "Thu"), "owner@example.edu", true);
+        Map<String, Object> votes = new HashMap<>();
+        for (int i = 0; i < classSize; i++) {
+            votes.put("student" + i + "@example.edu", new ArrayList<>(List.of(i % 4)));
+        }
+        poll.setVotes(votes);
+
+        identifiers = Set.of("student17@example.edu", "65f1c0ffee00000000000017", "Student 17");
+    }
+
+    @Benchmark
+    public List<Integer> normalizeLegacyVote() {
+        return Poll.normalizeVotes(legacyVote);
+    }
+
+    @Benchmark
+    public List<Integer> normalizeListVote() {
+        return Poll.normalizeVotes(listVote);
+    }
+
+    // Toggles an option on and off again, leaving the poll as it was
+    @Benchmark
+    public Map<String, Object> toggleMultiSelectVote() {
+        poll.recordVote("student1@example.edu", 3);
+        poll.recordVote("student1@example.edu", 3);
+        return poll.getVotes();
+    }
+
+    @Benchmark
+    public List<AttendanceController.UserAttendanceDTO> matchAttendanceHistory() {
+        return AttendanceController.matchHistory(attendance, identifiers);
+    }
+}
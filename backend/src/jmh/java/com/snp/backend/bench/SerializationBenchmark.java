@@ -0,0 +1,146 @@
+package com.snp.backend.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.snp.backend.model.Poll;
+import com.snp.backend.model.Project;
+import com.snp.backend.model.ws.CursorMessage;
+import com.snp.backend.model.ws.NodeMessage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson (de)serialization of the messages relayed on every board edit and
+ * of a whole project as loaded by the board screens. The mapper is built the
+ * way Spring Boot builds the application's.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    // Nodes in the project's flowchart; tool data grows with it
+    @Param({ "50", "500" })
+    private int nodes;
+
+    private ObjectMapper mapper;
+
+    private CursorMessage cursor;
+    private String cursorJson;
+    private NodeMessage node;
+    private String nodeJson;
+    private Project project;
+    private String projectJson;
+
+    @Setup
+    public void setUp() throws Exception {
+        mapper = Jackson2ObjectMapperBuilder.json().build();
+
+        cursor = new CursorMessage("user-42@example.edu", "65f1c0ffee0000000000abcd", 812.5, 431.25, "#FF5722");
+        cursorJson = mapper.writeValueAsString(cursor);
+
+        node = new NodeMessage("UPDATE", "65f1c0ffee0000000000abcd", "node_1718000000123", flowNode(7));
+        node.setClock(1234L);
+        node.setOrigin("session-9f3a");
+        nodeJson = mapper.writeValueAsString(node);
+
+        project = project(nodes);
+        projectJson = mapper.writeValueAsString(project);
+    }
+
+    @Benchmark
+    public String serializeCursor() throws Exception {
+        return mapper.writeValueAsString(cursor);
+    }
+
+    @Benchmark
+    public CursorMessage deserializeCursor() throws Exception {
+        return mapper.readValue(cursorJson, CursorMessage.class);
+    }
+
+    @Benchmark
+    public String serializeNode() throws Exception {
+        return mapper.writeValueAsString(node);
+    }
+
+    @Benchmark
+    public NodeMessage deserializeNode() throws Exception {
+        return mapper.readValue(nodeJson, NodeMessage.class);
+    }
+
+    @Benchmark
+    public String serializeProject() throws Exception {
+        return mapper.writeValueAsString(project);
+    }
+
+    @Benchmark
+    public Project deserializeProject() throws Exception {
+        return mapper.readValue(projectJson, Project.class);
+    }
+
+    // Same fields as FlowNode.toMap() in the Flutter flowchart screen
+    private static Map<String, Object> flowNode(int i) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("id", "node_" + (1718000000000L + i));
+        data.put("x", 120.0 + (i % 20) * 180.0);
+        data.put("y", 80.0 + (i / 20) * 120.0);
+        data.put("label", "Step " + i + ": review requirements");
+        data.put("parentId", i > 0 ? "node_" + (1718000000000L + (i - 1) / 2) : null);
+        data.put("color", 0xFF2196F3L);
+        data.put("shape", i % 4);
+        return data;
+    }
+
+    private Project project(int nodeCount) throws Exception {
+        List<Map<String, Object>> flowNodes = new ArrayList<>();
+        List<Map<String, Object>> connections = new ArrayList<>();
+        for (int i = 0; i < nodeCount; i++) {
+            flowNodes.add(flowNode(i));
+            if (i > 0) {
+                Map<String, Object> connection = new LinkedHashMap<>();
+                connection.put("id", "conn_node_" + (1718000000000L + i));
+                connection.put("fromId", "node_" + (1718000000000L + (i - 1) / 2));
+                connection.put("toId", "node_" + (1718000000000L + i));
+                connections.add(connection);
+            }
+        }
+        Map<String, Object> flowchart = new LinkedHashMap<>();
+        flowchart.put("nodes", flowNodes);
+        flowchart.put("connections", connections);
+
+        Project p = new Project();
+        p.setId("65f1c0ffee0000000000abcd");
+        p.setOwnerId("owner@example.edu");
+        p.setTitle("Capstone planning board");
+        p.setCollaboratorIds(new ArrayList<>(List.of("a@example.edu", "b@example.edu", "c@example.edu")));
+        p.getMemberRoles().put("a@example.edu", "EDITOR");
+        p.getMemberRoles().put("b@example.edu", "VIEWER");
+        Poll poll = new Poll("Which design?", List.of("A", "B", "C"), "owner@example.edu", true);
+        for (int i = 0; i < 30; i++) {
+            poll.recordVote("student" + i + "@example.edu", i % 3);
+        }
+        p.getPolls().add(poll);
+        p.setFlowchartData(mapper.writeValueAsString(flowchart));
+        p.setMindmapData(mapper.writeValueAsString(Map.of("nodes", flowNodes.subList(0, nodeCount / 2))));
+        p.setTimelineData(mapper.writeValueAsString(Map.of("events", flowNodes.subList(0, nodeCount / 5))));
+        return p;
+    }
+}
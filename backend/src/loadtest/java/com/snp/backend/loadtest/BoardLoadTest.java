@@ -0,0 +1,460 @@
+package com.snp.backend.loadtest;
+
+import com.snp.backend.BackendApplication;
+import com.snp.backend.model.ws.CursorMessage;
+import com.snp.backend.model.ws.NodeMessage;
+import com.snp.backend.service.BoardDestinations;
+import com.snp.backend.service.WebSocketSessionMonitor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Load generator for board collaboration over STOMP.
+ *
+ * Opens {@code sessions} STOMP sessions spread over {@code projects} boards.
+ * Each session subscribes to its board's node and cursor topics and sends
+ * cursor moves and node updates at the configured per-session rates. Every
+ * relayed copy is matched to its send to measure fan-out latency; copies that
+ * haven't arrived {@code lossTimeoutMs} after the send count as dropped.
+ *
+ * Without {@code target} the backend is started in this JVM on a random port
+ * with the operation log off, so the board path never touches Mongo and no
+ * database is needed. Server CPU is then the process CPU minus the client's
+ * threads, and the server-side cursor shedding counters are read from the
+ * session monitor. Heap figures cover the whole process.
+ *
+ * <pre>
+ * mvn -P loadtest test-compile exec:exec -Dloadtest.args="sessions=300 projects=10 cursorRate=20"
+ * </pre>
+ *
+ * Arguments are {@code key=value}: target (ws://host:port/ws), sessions,
+ * projects, cursorRate and updateRate (messages per second per session),
+ * duration and warmup (seconds), lossTimeoutMs.
+ */
+public class BoardLoadTest {
+
+    private static final String CLIENT_THREAD_PREFIX = "loadtest-";
+
+    private final Map<String, String> options;
+    private final int sessionCount;
+    private final int projectCount;
+    private final double cursorRate;
+    private final double updateRate;
+    private final int durationSeconds;
+    private final int warmupSeconds;
+    private final long lossTimeoutMs;
+
+    private final Map<String, Pending> pending = new ConcurrentHashMap<>();
+    private final Histogram cursorLatency = new Histogram();
+    private final Histogram nodeLatency = new Histogram();
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong received = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong unmatched = new AtomicLong();
+    private final AtomicLong sendErrors = new AtomicLong();
+    private volatile long measureFrom = Long.MAX_VALUE;
+
+    private BoardLoadTest(Map<String, String> options) {
+        this.options = options;
+        this.sessionCount = intOption("sessions", 100);
+        this.projectCount = intOption("projects", 10);
+        this.cursorRate = Double.parseDouble(options.getOrDefault("cursorRate", "10"));
+        this.updateRate = Double.parseDouble(options.getOrDefault("updateRate", "1"));
+        this.durationSeconds = intOption("duration", 30);
+        this.warmupSeconds = intOption("warmup", 5);
+        this.lossTimeoutMs = intOption("lossTimeoutMs", 5000);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq > 0) {
+                options.put(arg.substring(0, eq), arg.substring(eq + 1));
+            }
+        }
+        new BoardLoadTest(options).run();
+        System.exit(0);
+    }
+
+    private void run() throws Exception {
+        ConfigurableApplicationContext server = null;
+        String target = options.get("target");
+        if (target == null) {
+            server = startServer();
+            target = "ws://localhost:" + server.getEnvironment().getProperty("local.server.port") + "/ws";
+        }
+
+        WebSocketStompClient stompClient = new WebSocketStompClient(new StandardWebSocketClient());
+        stompClient.setMessageConverter(new MappingJackson2MessageConverter());
+        stompClient.setInboundMessageSizeLimit(256 * 1024);
+
+        System.out.printf("Connecting %d sessions on %d projects to %s%n", sessionCount, projectCount, target);
+        List<Client> clients = connect(stompClient, target);
+
+        ScheduledExecutorService senders = Executors.newScheduledThreadPool(
+                Math.max(2, Runtime.getRuntime().availableProcessors() / 2), namedThreads("sender"));
+        for (Client client : clients) {
+            schedule(senders, cursorRate, client::sendCursor);
+            schedule(senders, updateRate, client::sendUpdate);
+        }
+        ScheduledExecutorService sweeper = Executors.newSingleThreadScheduledExecutor(namedThreads("sweeper"));
+        sweeper.scheduleWithFixedDelay(() -> sweep(false), 1, 1, TimeUnit.SECONDS);
+
+        Thread.sleep(warmupSeconds * 1000L);
+        Sampler sampler = new Sampler(server != null);
+        measureFrom = System.nanoTime();
+        long heapPeak = 0;
+        for (int second = 0; second < durationSeconds; second++) {
+            Thread.sleep(1000);
+            heapPeak = Math.max(heapPeak, ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed());
+        }
+        long measuredNanos = System.nanoTime() - measureFrom;
+        senders.shutdownNow();
+        Sampler.Result cpu = sampler.finish();
+
+        // Let in-flight relays land, then count what never did
+        Thread.sleep(lossTimeoutMs);
+        sweeper.shutdownNow();
+        sweep(true);
+
+        report(measuredNanos, cpu, heapPeak, server);
+
+        for (Client client : clients) {
+            client.session.disconnect();
+        }
+        stompClient.stop();
+        if (server != null) {
+            Thread.sleep(500); // Let the server process the DISCONNECTs before its channels shut down
+            server.close();
+        }
+    }
+
+    private ConfigurableApplicationContext startServer() {
+        Map<String, Object> properties = new LinkedHashMap<>();
+        properties.put("server.port", 0);
+        properties.put("board.oplog.enabled", false);
+        properties.put("websocket.cluster.mode", "local");
+        properties.put("cache.change-stream.enabled", false);
+        // Nothing on the board path needs Mongo; other startup tasks fail fast and log
+        properties.put("spring.data.mongodb.uri", options.getOrDefault("mongo",
+                "mongodb://127.0.0.1:1/loadtest?serverSelectionTimeoutMS=200"));
+        properties.put("logging.level.org.mongodb.driver", "ERROR");
+        properties.put("spring.main.banner-mode", "off");
+        // As arguments, so they override application.properties
+        String[] args = properties.entrySet().stream()
+                .map(property -> "--" + property.getKey() + "=" + property.getValue())
+                .toArray(String[]::new);
+        return new SpringApplicationBuilder(BackendApplication.class).run(args);
+    }
+
+    private List<Client> connect(WebSocketStompClient stompClient, String target) throws Exception {
+        List<Client> clients = new ArrayList<>();
+        for (int i = 0; i < sessionCount; i++) {
+            String projectId = "loadtest-project-" + (i % projectCount);
+            String userId = "loadtest-user-" + i;
+            StompHeaders connectHeaders = new StompHeaders();
+            connectHeaders.add("userId", userId);
+            StompSession session = stompClient
+                    .connectAsync(target, new WebSocketHttpHeaders(), connectHeaders, new StompSessionHandlerAdapter() {
+                    })
+                    .get(10, TimeUnit.SECONDS);
+            Client client = new Client(session, userId, projectId, receiversOf(i));
+            session.subscribe(BoardDestinations.cursors(projectId), client.cursorHandler());
+            session.subscribe(BoardDestinations.nodes(projectId), client.nodeHandler());
+            clients.add(client);
+        }
+        // Subscriptions are asynchronous; give the broker a moment before sending
+        Thread.sleep(1000);
+        return clients;
+    }
+
+    // Sessions on the same board, the sender included: the broker echoes to it too
+    private int receiversOf(int sessionIndex) {
+        int project = sessionIndex % projectCount;
+        return sessionCount / projectCount + (project < sessionCount % projectCount ? 1 : 0);
+    }
+
+    private void schedule(ScheduledExecutorService executor, double rate, Runnable task) {
+        if (rate <= 0) {
+            return;
+        }
+        long periodMicros = (long) (1_000_000 / rate);
+        long initialDelay = (long) (Math.random() * periodMicros); // Spread sends over the period
+        executor.scheduleAtFixedRate(task, initialDelay, periodMicros, TimeUnit.MICROSECONDS);
+    }
+
+    private void expect(String key, int receivers) {
+        long sentAt = System.nanoTime();
+        pending.put(key, new Pending(sentAt, receivers));
+        if (sentAt >= measureFrom) {
+            sent.incrementAndGet();
+        }
+    }
+
+    private void arrived(String key, Histogram histogram) {
+        long now = System.nanoTime();
+        Pending p = key != null ? pending.get(key) : null;
+        if (p == null) {
+            unmatched.incrementAndGet(); // Arrived after being counted as dropped
+            return;
+        }
+        p.received.incrementAndGet();
+        if (p.sentAt >= measureFrom) {
+            received.incrementAndGet();
+            histogram.record(now - p.sentAt);
+        }
+    }
+
+    private void sweep(boolean all) {
+        long cutoff = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(lossTimeoutMs);
+        pending.forEach((key, p) -> {
+            if (all || p.sentAt < cutoff) {
+                if (pending.remove(key, p) && p.sentAt >= measureFrom) {
+                    dropped.addAndGet(Math.max(0, p.receivers - p.received.get()));
+                }
+            }
+        });
+    }
+
+    private void report(long measuredNanos, Sampler.Result cpu, long heapPeak, ConfigurableApplicationContext server) {
+        double seconds = measuredNanos / 1e9;
+        System.out.println();
+        System.out.printf("sessions=%d projects=%d cursorRate=%.1f/s updateRate=%.1f/s duration=%ds%n",
+                sessionCount, projectCount, cursorRate, updateRate, durationSeconds);
+        System.out.printf("sent=%d (%.0f/s)  delivered=%d (%.0f/s)  dropped=%d  late=%d  sendErrors=%d%n",
+                sent.get(), sent.get() / seconds, received.get(), received.get() / seconds, dropped.get(),
+                unmatched.get(), sendErrors.get());
+        System.out.println("cursor fan-out latency  " + cursorLatency.summary());
+        System.out.println("node fan-out latency    " + nodeLatency.summary());
+        if (cpu.serverCpu >= 0) {
+            System.out.printf("server cpu=%.0f%% of one core (client %.0f%%), %d cores%n", cpu.serverCpu * 100,
+                    cpu.clientCpu * 100, Runtime.getRuntime().availableProcessors());
+        } else {
+            System.out.printf("client cpu=%.0f%% of one core; server cpu not measured for a remote target%n",
+                    cpu.clientCpu * 100);
+        }
+        System.out.printf("heap peak=%d MB (process), max=%d MB%n", heapPeak >> 20,
+                Runtime.getRuntime().maxMemory() >> 20);
+        if (server != null) {
+            long shed = 0;
+            long evicted = 0;
+            for (Map<String, Long> stats : server.getBean(WebSocketSessionMonitor.class).getProjectStats()
+                    .values()) {
+                shed += stats.getOrDefault("droppedCursors", 0L);
+                evicted += stats.getOrDefault("evictedSessions", 0L);
+            }
+            System.out.printf("server shed cursors=%d evicted sessions=%d%n", shed, evicted);
+        }
+    }
+
+    private int intOption(String name, int defaultValue) {
+        return Integer.parseInt(options.getOrDefault(name, String.valueOf(defaultValue)));
+    }
+
+    private static java.util.concurrent.ThreadFactory namedThreads(String name) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, CLIENT_THREAD_PREFIX + name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private class Client {
+        private final StompSession session;
+        private final String userId;
+        private final String projectId;
+        private final int receivers;
+        private final AtomicLong seq = new AtomicLong();
+
+        Client(StompSession session, String userId, String projectId, int receivers) {
+            this.session = session;
+            this.userId = userId;
+            this.projectId = projectId;
+            this.receivers = receivers;
+        }
+
+        // The sequence number rides in x, so each relayed copy can be matched to its send
+        void sendCursor() {
+            long n = seq.incrementAndGet();
+            expect(userId + ":" + n, receivers);
+            send("/app/project.moveCursor", new CursorMessage(userId, projectId, n, 240.0, "#2196F3"));
+        }
+
+        // One node per session, so its relays carry this session's latest seq
+        void sendUpdate() {
+            long n = seq.incrementAndGet();
+            String nodeId = "node-" + userId;
+            Map<String, Object> data = new LinkedHashMap<>();
+            data.put("id", nodeId);
+            data.put("x", 100.0 + n % 500);
+            data.put("y", 80.0);
+            data.put("label", "Load test node");
+            data.put("loadSeq", n);
+            expect(nodeId + ":" + n, receivers);
+            send("/app/project.updateNode", new NodeMessage("UPDATE", projectId, nodeId, data));
+        }
+
+        private void send(String destination, Object payload) {
+            try {
+                // A session's sends come from several scheduler threads
+                synchronized (this) {
+                    session.send(destination, payload);
+                }
+            } catch (RuntimeException e) {
+                sendErrors.incrementAndGet();
+            }
+        }
+
+        StompFrameHandler cursorHandler() {
+            return new StompFrameHandler() {
+                @Override
+                public Type getPayloadType(StompHeaders headers) {
+                    return CursorMessage.class;
+                }
+
+                @Override
+                public void handleFrame(StompHeaders headers, Object payload) {
+                    CursorMessage cursor = (CursorMessage) payload;
+                    arrived(cursor.getUserId() + ":" + (long) cursor.getX(), cursorLatency);
+                }
+            };
+        }
+
+        StompFrameHandler nodeHandler() {
+            return new StompFrameHandler() {
+                @Override
+                public Type getPayloadType(StompHeaders headers) {
+                    return NodeMessage.class;
+                }
+
+                @Override
+                public void handleFrame(StompHeaders headers, Object payload) {
+                    NodeMessage node = (NodeMessage) payload;
+                    Object loadSeq = node.getData() != null ? node.getData().get("loadSeq") : null;
+                    arrived(loadSeq != null ? node.getNodeId() + ":" + loadSeq : null, nodeLatency);
+                }
+            };
+        }
+    }
+
+    private static class Pending {
+        private final long sentAt;
+        private final int receivers;
+        private final AtomicInteger received = new AtomicInteger();
+
+        Pending(long sentAt, int receivers) {
+            this.sentAt = sentAt;
+            this.receivers = receivers;
+        }
+    }
+
+    /**
+     * Latency histogram with 100 µs buckets up to 10 s.
+     */
+    private static class Histogram {
+        private static final long BUCKET_NANOS = 100_000;
+        private final AtomicLongArray buckets = new AtomicLongArray(100_001);
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong max = new AtomicLong();
+
+        void record(long nanos) {
+            buckets.incrementAndGet((int) Math.min(buckets.length() - 1, nanos / BUCKET_NANOS));
+            count.incrementAndGet();
+            max.accumulateAndGet(nanos, Math::max);
+        }
+
+        String summary() {
+            if (count.get() == 0) {
+                return "n=0";
+            }
+            return String.format("n=%d p50=%.1fms p90=%.1fms p99=%.1fms p99.9=%.1fms max=%.1fms", count.get(),
+                    percentile(0.50), percentile(0.90), percentile(0.99), percentile(0.999), max.get() / 1e6);
+        }
+
+        private double percentile(double p) {
+            long rank = (long) Math.ceil(p * count.get());
+            long seen = 0;
+            for (int i = 0; i < buckets.length(); i++) {
+                seen += buckets.get(i);
+                if (seen >= rank) {
+                    return (i + 1) * BUCKET_NANOS / 1e6; // Upper bound of the bucket
+                }
+            }
+            return max.get() / 1e6;
+        }
+    }
+
+    /**
+     * CPU used during the measured window, split between this harness's
+     * threads and everything else in the process.
+     */
+    private static class Sampler {
+        private final boolean embedded;
+        private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        private final long startNanos = System.nanoTime();
+        private final long startProcessCpu = processCpuNanos();
+        private final long startClientCpu;
+
+        Sampler(boolean embedded) {
+            this.embedded = embedded;
+            this.startClientCpu = clientCpuNanos();
+        }
+
+        Result finish() {
+            double wall = System.nanoTime() - startNanos;
+            double client = (clientCpuNanos() - startClientCpu) / wall;
+            double process = (processCpuNanos() - startProcessCpu) / wall;
+            return new Result(embedded ? Math.max(0, process - client) : -1, client);
+        }
+
+        // Harness threads, plus the WebSocket client's I/O threads that run the frame handlers
+        private long clientCpuNanos() {
+            long total = 0;
+            for (ThreadInfo info : threads.getThreadInfo(threads.getAllThreadIds())) {
+                if (info != null && (info.getThreadName().startsWith(CLIENT_THREAD_PREFIX)
+                        || info.getThreadName().contains("WebSocketClient"))) {
+                    long cpu = threads.getThreadCpuTime(info.getThreadId());
+                    total += Math.max(0, cpu);
+                }
+            }
+            return total;
+        }
+
+        private static long processCpuNanos() {
+            if (ManagementFactory.getOperatingSystemMXBean() instanceof com.sun.management.OperatingSystemMXBean os) {
+                return os.getProcessCpuTime();
+            }
+            return 0;
+        }
+
+        record Result(double serverCpu, double clientCpu) {
+        }
+    }
+}
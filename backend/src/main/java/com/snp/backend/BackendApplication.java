@@ -1,5 +1,7 @@
 package com.snp.backend;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 
@@ -7,8 +9,10 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
 @org.springframework.scheduling.annotation.EnableScheduling
 public class BackendApplication {
 
+	private static final Logger log = LoggerFactory.getLogger(BackendApplication.class);
+
 	public static void main(String[] args) {
-		System.out.println("Checking Auto Deployment...");
+		log.info("Checking Auto Deployment...");
 		SpringApplication.run(BackendApplication.class, args);
 	}
 
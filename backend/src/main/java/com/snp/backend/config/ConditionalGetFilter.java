@@ -0,0 +1,132 @@
+package com.snp.backend.config;
+
+import com.snp.backend.service.CollectionVersions;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * ETags for the read-mostly list endpoints.
+ *
+ * The tag of a GET is derived from the request URI and query and the versions
+ * of the collections the endpoint reads, so it is known before the controller
+ * runs: a matching If-None-Match is answered with 304 without touching Mongo.
+ * Collections that also lose documents to TTL indexes, which no write event
+ * reports, fold a time bucket of {@code http.etag.ttl-bucket-seconds} into the
+ * tag so clients pick up expirations within one bucket.
+ *
+ * Versions only count writes made through this instance unless the change
+ * stream ({@code cache.change-stream.enabled}) feeds in everyone else's. Without
+ * it, every tag also carries a bucket of {@code http.etag.max-age-seconds}, the
+ * same bound CollectionListCache puts on its entries, so a write on another
+ * instance is picked up within one bucket.
+ */
+@Component
+public class ConditionalGetFilter extends OncePerRequestFilter {
+
+    // Endpoint prefix -> collections its responses are built from
+    private static final Map<String, List<String>> ENDPOINTS = new LinkedHashMap<>();
+
+    static {
+        ENDPOINTS.put("/api/events", List.of("events"));
+        ENDPOINTS.put("/api/users", List.of("users"));
+        ENDPOINTS.put("/api/announcements", List.of("announcements", "users"));
+        ENDPOINTS.put("/api/schedule", List.of("schedule_entries"));
+        ENDPOINTS.put("/api/membership", List.of("membership_requests"));
+    }
+
+    private static final List<String> TTL_COLLECTIONS = List.of("announcements", "schedule_entries");
+
+    @Autowired
+    private CollectionVersions collectionVersions;
+
+    @Value("${http.etag.enabled:true}")
+    private boolean enabled;
+
+    @Value("${http.etag.ttl-bucket-seconds:60}")
+    private long ttlBucketSeconds;
+
+    @Value("${http.etag.max-age-seconds:60}")
+    private long maxAgeSeconds;
+
+    @Value("${cache.change-stream.enabled:false}")
+    private boolean changeStreamEnabled;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !"GET".equals(request.getMethod()) || collectionsFor(request.getRequestURI()) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String etag = etag(request, collectionsFor(request.getRequestURI()));
+
+        response.setHeader(HttpHeaders.ETAG, etag);
+        // Cacheable by the client, but revalidated on every use
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+
+    private List<String> collectionsFor(String uri) {
+        for (Map.Entry<String, List<String>> endpoint : ENDPOINTS.entrySet()) {
+            String prefix = endpoint.getKey();
+            if (uri.equals(prefix) || uri.startsWith(prefix + "/")) {
+                return endpoint.getValue();
+            }
+        }
+        return null;
+    }
+
+    private String etag(HttpServletRequest request, List<String> collections) {
+        StringBuilder key = new StringBuilder(request.getRequestURI());
+        if (request.getQueryString() != null) {
+            key.append('?').append(request.getQueryString());
+        }
+        if (!changeStreamEnabled) {
+            key.append('@').append(System.currentTimeMillis() / 1000 / maxAgeSeconds);
+        }
+        for (String collection : collections) {
+            key.append('|').append(collection).append('=').append(collectionVersions.get(collection));
+            if (TTL_COLLECTIONS.contains(collection)) {
+                key.append('@').append(System.currentTimeMillis() / 1000 / ttlBucketSeconds);
+            }
+        }
+        CRC32 crc = new CRC32();
+        crc.update(key.toString().getBytes(StandardCharsets.UTF_8));
+        // Weak: the body is semantically the same, byte-equality isn't promised (e.g. gzip)
+        return "W/\"" + collectionVersions.getEpoch() + "-" + Long.toHexString(crc.getValue()) + "\"";
+    }
+
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String opaque = etag.substring(2);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || tag.equals(etag) || tag.equals(opaque)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
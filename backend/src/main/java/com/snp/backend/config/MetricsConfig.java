@@ -0,0 +1,150 @@
+package com.snp.backend.config;
+
+import com.snp.backend.service.BoardMergeService;
+import com.snp.backend.service.CleanupService;
+import com.snp.backend.service.CollectionListCache;
+import com.snp.backend.service.DashboardEventStream;
+import com.snp.backend.service.SlowQueryProfiler;
+import com.snp.backend.service.ToolDataCompressionListener;
+import com.snp.backend.service.UserCache;
+import com.snp.backend.service.WebSocketSessionMonitor;
+import io.micrometer.common.KeyValue;
+import io.micrometer.common.KeyValues;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Metrics beyond what Spring Boot records on its own.
+ *
+ * Boot already times every request (http.server.requests), every Mongo
+ * command (mongodb.driver.commands), the driver's connection pools
+ * (mongodb.driver.pool.*) and the queue depth of each ThreadPoolTaskExecutor,
+ * including the STOMP channel executors (executor.queued). This adds the
+ * handling controller method to request timers and exposes the counters the
+ * services already keep, which are otherwise only on /api/admin.
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Tags request timers with the controller method that served them, e.g.
+     * {@code handler=ProjectController.votePoll}.
+     */
+    @Bean
+    public DefaultServerRequestObservationConvention handlerTaggingConvention() {
+        return new DefaultServerRequestObservationConvention() {
+            @Override
+            public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+                return super.getLowCardinalityKeyValues(context).and(handler(context.getCarrier()));
+            }
+        };
+    }
+
+    private static KeyValue handler(HttpServletRequest request) {
+        Object handler = request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE);
+        if (handler instanceof HandlerMethod method) {
+            return KeyValue.of("handler", method.getBeanType().getSimpleName() + "." + method.getMethod().getName());
+        }
+        return KeyValue.of("handler", "none");
+    }
+
+    @Bean
+    public MeterBinder serviceStatsMetrics(BoardMergeService boardMergeService, UserCache userCache,
+            CollectionListCache listCache, CleanupService cleanupService,
+            DashboardEventStream dashboardEventStream, ToolDataCompressionListener toolDataCompression,
+            WebSocketSessionMonitor sessionMonitor, SlowQueryProfiler slowQueryProfiler) {
+        return registry -> {
+            // Read directly: the board stats are scraped often and must not take board locks
+            Gauge.builder("snp.board.boards", boardMergeService, BoardMergeService::getBoardCount)
+                    .register(registry);
+            Gauge.builder("snp.board.nodes", boardMergeService, BoardMergeService::getNodeCount)
+                    .register(registry);
+            FunctionCounter.builder("snp.board.deltas.applied", boardMergeService,
+                    BoardMergeService::getAppliedDeltas).register(registry);
+            FunctionCounter.builder("snp.board.deltas.rejected", boardMergeService,
+                    BoardMergeService::getRejectedDeltas).register(registry);
+
+            new StatsMeters<>(registry, userCache, UserCache::getStats)
+                    .gauge("snp.cache.users.size", "size")
+                    .counter("snp.cache.users.hits", "hits")
+                    .counter("snp.cache.users.misses", "misses")
+                    .counter("snp.cache.users.evictions", "evictions");
+
+            new StatsMeters<>(registry, listCache, CollectionListCache::getStats)
+                    .gauge("snp.cache.lists.entries", "entries")
+                    .counter("snp.cache.lists.hits", "hits")
+                    .counter("snp.cache.lists.misses", "misses");
+
+            new StatsMeters<>(registry, cleanupService, CleanupService::getStats)
+                    .counter("snp.retention.runs", "runs")
+                    .counter("snp.retention.failures", "failures")
+                    .counter("snp.retention.removed", "totalRemoved");
+
+            new StatsMeters<>(registry, dashboardEventStream, DashboardEventStream::getStats)
+                    .gauge("snp.sse.dashboard.subscribers", "subscribers")
+                    .counter("snp.sse.dashboard.sent", "sent")
+                    .counter("snp.sse.dashboard.resets", "resets");
+
+            new StatsMeters<>(registry, slowQueryProfiler, SlowQueryProfiler::getStats)
+                    .counter("snp.mongo.slow.commands", "slowCommands")
+                    .counter("snp.mongo.collection.scans", "collectionScans");
+
+            FunctionCounter.builder("snp.storage.tool_data.bytes.in", toolDataCompression,
+                    ToolDataCompressionListener::getBytesIn).baseUnit("bytes").register(registry);
+            FunctionCounter.builder("snp.storage.tool_data.bytes.stored", toolDataCompression,
+                    ToolDataCompressionListener::getBytesStored).baseUnit("bytes").register(registry);
+
+            Gauge.builder("snp.websocket.sessions", sessionMonitor, WebSocketSessionMonitor::getSessionCount)
+                    .register(registry);
+            FunctionCounter.builder("snp.websocket.sessions.evicted", sessionMonitor,
+                    WebSocketSessionMonitor::getEvictedSessions).register(registry);
+            FunctionCounter.builder("snp.websocket.cursors.dropped", sessionMonitor,
+                    WebSocketSessionMonitor::getDroppedCursors).register(registry);
+        };
+    }
+
+    /**
+     * Meters reading entries of a service's stats map. Meters hold their
+     * state object weakly, so they read through the service bean, which the
+     * context keeps alive, rather than through a lambda.
+     */
+    private static class StatsMeters<T> {
+        private final MeterRegistry registry;
+        private final T service;
+        private final Function<T, Map<String, Object>> stats;
+
+        StatsMeters(MeterRegistry registry, T service, Function<T, Map<String, Object>> stats) {
+            this.registry = registry;
+            this.service = service;
+            this.stats = stats;
+        }
+
+        StatsMeters<T> gauge(String name, String key) {
+            Gauge.builder(name, service, value(key)).register(registry);
+            return this;
+        }
+
+        StatsMeters<T> counter(String name, String key) {
+            FunctionCounter.builder(name, service, value(key)).register(registry);
+            return this;
+        }
+
+        private ToDoubleFunction<T> value(String key) {
+            return target -> stats.apply(target).get(key) instanceof Number number ? number.doubleValue()
+                    : Double.NaN;
+        }
+    }
+}
@@ -1,9 +1,47 @@
 package com.snp.backend.config;
 
+import com.snp.backend.service.SlowQueryProfiler;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.mongodb.config.EnableMongoAuditing;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
 
 @Configuration
 @EnableMongoAuditing
 public class MongoConfig {
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer slowQueryProfilerListener(SlowQueryProfiler profiler) {
+        return builder -> builder.addCommandListener(profiler);
+    }
+
+    /**
+     * Advice on every synchronous repository proxy: a tracing span per call
+     * (TracingConfig), and the call site the profiler reports for the
+     * commands the call runs.
+     */
+    @Bean
+    public static BeanPostProcessor repositoryAdvice(ObjectProvider<ObservationRegistry> observationRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                            (proxyFactory, information) -> {
+                                if (!information.isReactiveRepository()) {
+                                    Class<?> repository = information.getRepositoryInterface();
+                                    proxyFactory.addAdvice(TracingConfig.repositoryObservation(
+                                            repository.getSimpleName(), observationRegistry));
+                                    proxyFactory.addAdvice(SlowQueryProfiler.callSiteInterceptor(repository));
+                                }
+                            }));
+                }
+                return bean;
+            }
+        };
+    }
 }
@@ -0,0 +1,58 @@
+package com.snp.backend.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * Gives every request a correlation id, taken from the caller's X-Request-Id
+ * header when it looks sane and generated otherwise. The id is echoed in the
+ * response and put in the logging MDC as {@code requestId}, so every line
+ * logged while serving the request carries it.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestIdFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "X-Request-Id";
+    public static final String MDC_KEY = "requestId";
+
+    private static final Pattern VALID_ID = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+    private static final String ATTRIBUTE = RequestIdFilter.class.getName() + ".id";
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        // Async dispatches (streams) resume on another thread with the id chosen the first time
+        String requestId = (String) request.getAttribute(ATTRIBUTE);
+        if (requestId == null) {
+            String supplied = request.getHeader(HEADER);
+            requestId = supplied != null && VALID_ID.matcher(supplied).matches()
+                    ? supplied
+                    : UUID.randomUUID().toString().replace("-", "").substring(0, 16);
+            request.setAttribute(ATTRIBUTE, requestId);
+            response.setHeader(HEADER, requestId);
+        }
+        MDC.put(MDC_KEY, requestId);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            MDC.remove(MDC_KEY);
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+}
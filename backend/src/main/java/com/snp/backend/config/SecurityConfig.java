@@ -1,18 +1,29 @@
 package com.snp.backend.config;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
 
+import java.util.UUID;
+
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
 
+    private static final Logger log = LoggerFactory.getLogger(SecurityConfig.class);
+
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http
@@ -24,11 +35,32 @@ public class SecurityConfig {
                                                              // explicit (or enable if needed)
                         .contentSecurityPolicy(csp -> csp.policyDirectives(
                                 "default-src 'self' data: https:; script-src 'self' 'unsafe-inline' https:; style-src 'self' 'unsafe-inline' https:;")))
+                // Changing log levels needs the actuator credentials; everything else is open
                 .authorizeHttpRequests(auth -> auth
-                        .anyRequest().permitAll());
+                        .requestMatchers("/actuator/loggers/**").authenticated()
+                        .anyRequest().permitAll())
+                .httpBasic(Customizer.withDefaults());
         return http.build();
     }
 
+    /**
+     * The one account HTTP Basic knows about, for /actuator/loggers. Without a
+     * configured password a random one is generated and logged at startup.
+     */
+    @Bean
+    public UserDetailsService actuatorUser(PasswordEncoder passwordEncoder,
+            @Value("${actuator.user:ops}") String username,
+            @Value("${actuator.password:}") String password) {
+        if (password.isBlank()) {
+            password = UUID.randomUUID().toString();
+            log.warn("Generated password for {} on /actuator/loggers: {}", username, password);
+        }
+        return new InMemoryUserDetailsManager(User.withUsername(username)
+                .password(passwordEncoder.encode(password))
+                .roles("ACTUATOR")
+                .build());
+    }
+
     @Bean
     public PasswordEncoder passwordEncoder() {
         return new BCryptPasswordEncoder();
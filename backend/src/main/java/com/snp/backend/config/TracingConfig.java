@@ -0,0 +1,85 @@
+package com.snp.backend.config;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationPredicate;
+import io.micrometer.observation.ObservationRegistry;
+import io.opentelemetry.exporter.logging.LoggingSpanExporter;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.observability.ContextProviderFactory;
+import org.springframework.data.mongodb.observability.MongoObservationCommandListener;
+import org.springframework.scheduling.support.ScheduledTaskObservationContext;
+import org.springframework.util.function.SingletonSupplier;
+
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Tracing beyond Boot's HTTP server spans, which already carry the handling
+ * controller method as the {@code handler} tag (MetricsConfig).
+ *
+ * Spans go to every SpanExporter bean: OTLP when
+ * {@code management.otlp.tracing.endpoint} is set, the log when
+ * {@code tracing.exporter.logging.enabled} is on, and always the in-memory
+ * RecentTraceExporter behind /api/admin/traces. STOMP spans come from
+ * StompTracing, registered on the client channels in WebSocketConfig.
+ */
+@Configuration
+public class TracingConfig {
+
+    // One log line per finished span; for trying tracing out without a collector
+    @Bean
+    @ConditionalOnProperty(name = "tracing.exporter.logging.enabled", havingValue = "true")
+    public LoggingSpanExporter loggingSpanExporter() {
+        return LoggingSpanExporter.create();
+    }
+
+    /**
+     * Leaves out the scheduled tasks that run every few hundred milliseconds.
+     * Their traces would otherwise crowd out request traces, and they lose
+     * their tasks.scheduled.execution timers with it.
+     */
+    @Bean
+    public ObservationPredicate frequentScheduledTasks(
+            @Value("${tracing.scheduled.exclude:}") Set<String> excluded) {
+        return (name, context) -> !(context instanceof ScheduledTaskObservationContext task
+                && excluded.contains(task.getTargetClass().getSimpleName() + "." + task.getMethod().getName()));
+    }
+
+    // A child span per Mongo command, parented to the span current on the calling thread
+    @Bean
+    public MongoClientSettingsBuilderCustomizer mongoTracing(ObservationRegistry observationRegistry) {
+        return builder -> builder
+                .contextProvider(ContextProviderFactory.create(observationRegistry))
+                .addCommandListener(new MongoObservationCommandListener(observationRegistry));
+    }
+
+    /**
+     * A span per synchronous repository call, e.g. "ProjectRepository.save",
+     * so a controller's Mongo commands are grouped by the call that issued
+     * them. Added to repository proxies in MongoConfig.
+     */
+    static MethodInterceptor repositoryObservation(String repository,
+            ObjectProvider<ObservationRegistry> observationRegistry) {
+        Supplier<ObservationRegistry> registries = SingletonSupplier.of(
+                () -> observationRegistry.getIfAvailable(() -> ObservationRegistry.NOOP));
+        return invocation -> {
+            ObservationRegistry registry = registries.get();
+            // Only within a trace: a repository call on its own (e.g. a scheduled job) starts none
+            if (registry.getCurrentObservation() == null) {
+                return invocation.proceed();
+            }
+            String method = invocation.getMethod().getName();
+            return Observation.createNotStarted("mongo.repository", registry)
+                    .contextualName(repository + "." + method)
+                    .lowCardinalityKeyValue("repository", repository)
+                    .lowCardinalityKeyValue("method", method)
+                    .observeChecked(() -> invocation.proceed());
+        };
+    }
+}
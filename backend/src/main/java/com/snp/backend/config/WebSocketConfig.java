@@ -1,20 +1,105 @@
 package com.snp.backend.config;
 
+import com.snp.backend.service.BoardPresenceService;
+import com.snp.backend.service.StompTracing;
+import com.snp.backend.service.StompTrafficMetrics;
+import com.snp.backend.service.WebSocketSessionMonitor;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.filter.OncePerRequestFilter;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
 
 @Configuration
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    @Autowired
+    private WebSocketSessionMonitor sessionMonitor;
+
+    @Autowired
+    private BoardPresenceService presenceService;
+
+    @Autowired
+    private StompTrafficMetrics trafficMetrics;
+
+    @Autowired
+    private StompTracing tracing;
+
+    @Autowired
+    private Environment environment;
+
+    // The broker's own scheduler; lazy because it is created by the same configuration
+    @Lazy
+    @Autowired
+    private TaskScheduler messageBrokerTaskScheduler;
+
+    // How often the broker sends heartbeats, and how often it expects them from clients
+    @Value("${websocket.heartbeat.interval-ms:10000}")
+    private long heartbeatIntervalMs;
+
+    @Value("${websocket.inbound.core-pool-size:4}")
+    private int inboundCorePoolSize;
+
+    @Value("${websocket.inbound.max-pool-size:8}")
+    private int inboundMaxPoolSize;
+
+    @Value("${websocket.inbound.queue-capacity:10000}")
+    private int inboundQueueCapacity;
+
+    @Value("${websocket.outbound.core-pool-size:4}")
+    private int outboundCorePoolSize;
+
+    @Value("${websocket.outbound.max-pool-size:8}")
+    private int outboundMaxPoolSize;
+
+    @Value("${websocket.outbound.queue-capacity:10000}")
+    private int outboundQueueCapacity;
+
+    // Bounds in-flight messages per channel when spring.threads.virtual.enabled is on
+    @Value("${websocket.virtual.max-concurrency:1000}")
+    private int virtualMaxConcurrency;
+
+    @Value("${websocket.transport.message-size-limit:65536}")
+    private int messageSizeLimit;
+
+    @Value("${websocket.transport.send-buffer-size-limit:262144}")
+    private int sendBufferSizeLimit;
+
+    @Value("${websocket.transport.send-time-limit-ms:5000}")
+    private int sendTimeLimitMs;
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
         // Enable a simple memory-based message broker to carry the greeting messages
         // back to the client on destinations prefixed with "/topic"
-        config.enableSimpleBroker("/topic");
+        config.enableSimpleBroker("/topic")
+                .setHeartbeatValue(new long[] {heartbeatIntervalMs, heartbeatIntervalMs})
+                .setTaskScheduler(messageBrokerTaskScheduler);
 
         // Designates the prefix for messages that are bound for methods annotated with
         // @MessageMapping
@@ -28,4 +113,111 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
         // Allowed origins set to "*" for development convenience.
         registry.addEndpoint("/ws").setAllowedOriginPatterns("*");
     }
+
+    /**
+     * Tomcat negotiates permessage-deflate itself whenever a client offers it,
+     * ignoring the handshake handler's extension list, so turning it off means
+     * hiding the offer from the upgrade.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "websocket.transport.per-message-deflate", havingValue = "false")
+    public FilterRegistrationBean<OncePerRequestFilter> perMessageDeflateFilter() {
+        FilterRegistrationBean<OncePerRequestFilter> registration = new FilterRegistrationBean<>(
+                new OncePerRequestFilter() {
+                    @Override
+                    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                            FilterChain chain) throws ServletException, IOException {
+                        chain.doFilter(new WithoutExtensionsRequest(request), response);
+                    }
+                });
+        registration.addUrlPatterns("/ws", "/ws/*");
+        return registration;
+    }
+
+    private static class WithoutExtensionsRequest extends HttpServletRequestWrapper {
+        private static final String EXTENSIONS_HEADER = "Sec-WebSocket-Extensions";
+
+        WithoutExtensionsRequest(HttpServletRequest request) {
+            super(request);
+        }
+
+        @Override
+        public String getHeader(String name) {
+            return EXTENSIONS_HEADER.equalsIgnoreCase(name) ? null : super.getHeader(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaders(String name) {
+            return EXTENSIONS_HEADER.equalsIgnoreCase(name) ? Collections.emptyEnumeration() : super.getHeaders(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaderNames() {
+            List<String> names = Collections.list(super.getHeaderNames());
+            names.removeIf(EXTENSIONS_HEADER::equalsIgnoreCase);
+            return Collections.enumeration(names);
+        }
+    }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        if (isVirtualThreads()) {
+            registration.taskExecutor(virtualThreadExecutor("ws-inbound-", inboundQueueCapacity));
+        } else {
+            registration.taskExecutor()
+                    .corePoolSize(inboundCorePoolSize)
+                    .maxPoolSize(inboundMaxPoolSize)
+                    .queueCapacity(inboundQueueCapacity);
+        }
+        // Every inbound frame, heartbeats included, refreshes board presence
+        registration.interceptors(presenceService, trafficMetrics.inbound(), tracing.inbound());
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        if (isVirtualThreads()) {
+            registration.taskExecutor(virtualThreadExecutor("ws-outbound-", outboundQueueCapacity));
+        } else {
+            registration.taskExecutor()
+                    .corePoolSize(outboundCorePoolSize)
+                    .maxPoolSize(outboundMaxPoolSize)
+                    .queueCapacity(outboundQueueCapacity);
+        }
+        // Per-session pending counts, cursor shedding and slow-consumer tracking;
+        // messages the monitor sheds are not counted as sent
+        registration.interceptors(sessionMonitor, trafficMetrics.outbound(), tracing.outbound());
+    }
+
+    // Same switch Boot uses for Tomcat and @Scheduled; never true below Java 21
+    private boolean isVirtualThreads() {
+        return Threading.VIRTUAL.isActive(environment);
+    }
+
+    /**
+     * A channel executor whose pool threads are virtual. The channel API only
+     * takes a ThreadPoolTaskExecutor, so this is a pool of up to
+     * {@code websocket.virtual.max-concurrency} virtual threads in front of a
+     * queue of {@code queueCapacity}; threads are reused while busy and time
+     * out after 5 seconds idle, rather than one being started per message.
+     */
+    private ThreadPoolTaskExecutor virtualThreadExecutor(String prefix, int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadFactory(new VirtualThreadTaskExecutor(prefix).getVirtualThreadFactory());
+        executor.setCorePoolSize(virtualMaxConcurrency);
+        executor.setMaxPoolSize(virtualMaxConcurrency);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setKeepAliveSeconds(5);
+        return executor;
+    }
+
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        // A session whose buffered frames exceed the buffer or stay unsent past the
+        // time limit is closed instead of blocking an outbound thread
+        registration.setMessageSizeLimit(messageSizeLimit)
+                .setSendBufferSizeLimit(sendBufferSizeLimit)
+                .setSendTimeLimit(sendTimeLimitMs)
+                .addDecoratorFactory(sessionMonitor::decorate);
+    }
 }
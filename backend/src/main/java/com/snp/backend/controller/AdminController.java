@@ -1,12 +1,28 @@
 package com.snp.backend.controller;
 
-import com.snp.backend.model.User;
-import com.snp.backend.repository.UserRepository;
+import com.snp.backend.service.BoardMergeService;
+import com.snp.backend.service.CleanupService;
+import com.snp.backend.service.CollectionListCache;
+import com.snp.backend.service.DashboardEventStream;
+import com.snp.backend.service.DomainBackfillService;
+import com.snp.backend.service.IndexBootstrapper;
+import com.snp.backend.service.JfrDiagnosticsService;
+import com.snp.backend.service.JobService;
+import com.snp.backend.service.RecentTraceExporter;
+import com.snp.backend.service.SlowQueryProfiler;
+import com.snp.backend.service.ToolDataCompressionListener;
+import com.snp.backend.service.UserCache;
+import com.snp.backend.service.WebSocketSessionMonitor;
+import org.bson.types.ObjectId;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.util.HashMap;
 import java.util.List;
-import java.util.Random;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/admin")
@@ -14,75 +30,167 @@ import java.util.Random;
 public class AdminController {
 
     @Autowired
-    private UserRepository userRepository;
+    private CleanupService cleanupService;
+
+    @Autowired
+    private JobService jobService;
+
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private WebSocketSessionMonitor webSocketSessionMonitor;
+
+    @Autowired
+    private BoardMergeService boardMergeService;
+
+    @Autowired
+    private ToolDataCompressionListener toolDataCompression;
+
+    @Autowired
+    private CollectionListCache listCache;
+
+    @Autowired
+    private DashboardEventStream dashboardEventStream;
+
+    @Autowired
+    private SlowQueryProfiler slowQueryProfiler;
+
+    @Autowired
+    private IndexBootstrapper indexBootstrapper;
+
+    @Autowired
+    private RecentTraceExporter recentTraces;
 
+    @Autowired
+    private JfrDiagnosticsService jfrDiagnostics;
+
+    @GetMapping("/retention/stats")
+    public Map<String, Object> getRetentionStats() {
+        return cleanupService.getStats();
+    }
+
+    @GetMapping("/cache/users")
+    public Map<String, Object> getUserCacheStats() {
+        return userCache.getStats();
+    }
+
+    @GetMapping("/cache/lists")
+    public Map<String, Object> getListCacheStats() {
+        return listCache.getStats();
+    }
+
+    @GetMapping("/sse/dashboard")
+    public Map<String, Object> getDashboardStreamStats() {
+        return dashboardEventStream.getStats();
+    }
+
+    @GetMapping("/websocket/sessions")
+    public List<Map<String, Object>> getWebSocketSessionStats() {
+        return webSocketSessionMonitor.getSessionStats();
+    }
+
+    @GetMapping("/websocket/projects")
+    public Map<String, Map<String, Long>> getWebSocketProjectStats() {
+        return webSocketSessionMonitor.getProjectStats();
+    }
+
+    @GetMapping("/boards/merge")
+    public Map<String, Object> getBoardMergeStats() {
+        return boardMergeService.getStats();
+    }
+
+    // Slow query shapes explained since startup, and whether they scanned their collection
+    @GetMapping("/mongo/slow-queries")
+    public Map<String, Object> getSlowQueries() {
+        Map<String, Object> result = new HashMap<>(slowQueryProfiler.getStats());
+        result.put("queries", slowQueryProfiler.getFindings());
+        return result;
+    }
+
+    // Index declared for each repository query method, and methods without one
+    @GetMapping("/mongo/indexes")
+    public Map<String, Object> getIndexDeclarations() {
+        Map<String, Object> result = new HashMap<>();
+        result.put("declared", indexBootstrapper.getDeclarations());
+        result.put("unindexed", indexBootstrapper.findUnindexedQueryMethods());
+        return result;
+    }
+
+    // Recently finished (sampled) traces with per-span timings, e.g. ?span=/api/schedule or ?span=update-node
+    @GetMapping("/traces")
+    public List<Map<String, Object>> getRecentTraces(@RequestParam(defaultValue = "20") int limit,
+            @RequestParam(required = false) String span) {
+        return recentTraces.getTraces(Math.max(1, Math.min(limit, 200)), span);
+    }
+
+    /**
+     * Records allocations, lock contention and GC pauses for the given window
+     * and responds with the summary once it ends. focus lists class or package
+     * prefixes broken out separately (default: board relay and simple broker).
+     * Only available with diagnostics.jfr.enabled.
+     */
+    @PostMapping("/diagnostics/jfr")
+    public DeferredResult<ResponseEntity<?>> recordJfr(@RequestParam(defaultValue = "30") int seconds,
+            @RequestParam(required = false) List<String> focus) {
+        DeferredResult<ResponseEntity<?>> response = new DeferredResult<>((seconds + 60) * 1000L);
+        if (!jfrDiagnostics.isEnabled()) {
+            response.setResult(ResponseEntity.status(HttpStatus.NOT_FOUND).body("JFR diagnostics are disabled"));
+            return response;
+        }
+        try {
+            jfrDiagnostics.record(seconds, focus != null ? focus : JfrDiagnosticsService.DEFAULT_FOCUS)
+                    .whenComplete((summary, e) -> response.setResult(e == null ? ResponseEntity.ok(summary)
+                            : ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(e.getMessage())));
+        } catch (IllegalArgumentException e) {
+            response.setResult(ResponseEntity.badRequest().body(e.getMessage()));
+        } catch (IllegalStateException e) {
+            response.setResult(ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage()));
+        }
+        return response;
+    }
+
+    @GetMapping("/diagnostics/jfr")
+    public ResponseEntity<?> getLastJfrSummary() {
+        if (!jfrDiagnostics.isEnabled()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("JFR diagnostics are disabled");
+        }
+        Map<String, Object> summary = jfrDiagnostics.getLastSummary();
+        if (summary == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(jfrDiagnostics.isRecording() ? "Recording in progress" : "No recording yet");
+        }
+        return ResponseEntity.ok(summary);
+    }
+
+    // Tool blobs compressed at rest since startup
+    @GetMapping("/storage/tool-data")
+    public Map<String, Object> getToolDataCompressionStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("bytesIn", toolDataCompression.getBytesIn());
+        stats.put("bytesStored", toolDataCompression.getBytesStored());
+        return stats;
+    }
+
+    // Starts the backfill as a background job; poll /api/admin/jobs/{id} for progress.
+    // resumeAfter seeds the job with the checkpoint of an earlier run.
     @PostMapping("/backfill-domains")
-    public ResponseEntity<?> backfillDomains() {
-        List<User> users = userRepository.findAll();
-        // Matching domains from frontend: Management, Tech, WebDev, Content, Design,
-        // Marketing
-        // Using "Web Dev" as string to match existing data potentially or frontend enum
-        // Checking domain.dart: 'webdev' or 'web dev'.
-        // User.java stores String.
-        // Let's use clean strings.
-        String[] domains = { "Management", "Tech", "Web Dev", "Content", "Design", "Marketing" };
-        String[] departments = { "CSE", "ECE", "MECH", "EEE", "CIVIL", "IT", "AI&DS" };
-        String[] years = { "I", "II", "III", "IV" };
-        String[] sections = { "A", "B", "C" };
-
-        Random random = new Random();
-        int count = 0;
-
-        for (User u : users) {
-            boolean changed = false;
-
-            // Check if domains list is empty
-            if (u.getDomains() == null || u.getDomains().isEmpty()) {
-                // Determine how many domains to assign (1 or 2)
-                int numDomains = random.nextInt(2) + 1; // 1 or 2
-                java.util.List<String> newDomains = new java.util.ArrayList<>();
-
-                for (int i = 0; i < numDomains; i++) {
-                    String d = domains[random.nextInt(domains.length)];
-                    if (!newDomains.contains(d)) {
-                        newDomains.add(d);
-                    }
-                }
-
-                u.setDomains(newDomains);
-                changed = true;
-            }
-
-            if (u.getDepartment() == null || u.getDepartment().isEmpty()) {
-                u.setDepartment(departments[random.nextInt(departments.length)]);
-                changed = true;
-            }
-
-            if (u.getYear() == null || u.getYear().isEmpty()) {
-                u.setYear(years[random.nextInt(years.length)]);
-                changed = true;
-            }
-
-            if (u.getSection() == null || u.getSection().isEmpty()) {
-                u.setSection(sections[random.nextInt(sections.length)]);
-                changed = true;
-            }
-
-            if (u.getRegisterNumber() == null || u.getRegisterNumber().isEmpty()) {
-                // Generate random reg number: 3123 + year(2digits) + 104 + random(3digits)
-                // (Example format)
-                int yearPrefix = 21 + random.nextInt(4);
-                int randomId = 100 + random.nextInt(900);
-                u.setRegisterNumber("3123" + yearPrefix + "104" + randomId);
-                changed = true;
-            }
-
-            if (changed) {
-                userRepository.save(u);
-                count++;
-            }
+    public ResponseEntity<?> backfillDomains(@RequestParam(required = false) String resumeAfter,
+            @RequestParam(required = false) Integer batchSize) {
+        if (resumeAfter != null && !ObjectId.isValid(resumeAfter)) {
+            return ResponseEntity.badRequest().body("Invalid resumeAfter id");
         }
 
-        return ResponseEntity.ok("Backfilled data for " + count + " users.");
+        Map<String, String> params = new HashMap<>();
+        if (resumeAfter != null)
+            params.put("resumeAfter", resumeAfter);
+        if (batchSize != null)
+            params.put("batchSize", batchSize.toString());
+
+        try {
+            return ResponseEntity.ok(jobService.submit(DomainBackfillService.JOB_TYPE, params));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        }
     }
 }
@@ -4,6 +4,8 @@ import com.snp.backend.model.Announcement;
 import com.snp.backend.model.User;
 import com.snp.backend.repository.AnnouncementRepository;
 import com.snp.backend.repository.UserRepository;
+import com.snp.backend.service.CollectionListCache;
+import com.snp.backend.service.UserCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 
@@ -22,9 +24,15 @@ public class AnnouncementController {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private CollectionListCache listCache;
+
     @GetMapping
     public List<Announcement> getAllAnnouncements() {
-        return announcementRepository.findAllByOrderByDateDesc();
+        return recentAnnouncements();
     }
 
     @PostMapping
@@ -42,13 +50,13 @@ public class AnnouncementController {
     @GetMapping("/unread-count/{userId}")
     public long getUnreadCount(@PathVariable String userId) {
         // userId here is treated as email/username from frontend
-        User user = userRepository.findByEmail(userId).orElse(null);
+        User user = userCache.findByEmail(userId).orElse(null);
         if (user == null || user.getLastAnnouncementRead() == null) {
             // If never read, count all (or maybe limit to recent, but all is safer)
             return announcementRepository.count();
         }
 
-        List<Announcement> all = announcementRepository.findAllByOrderByDateDesc();
+        List<Announcement> all = recentAnnouncements();
         return all.stream()
                 .filter(a -> a.getDate().isAfter(user.getLastAnnouncementRead()))
                 .count();
@@ -56,9 +64,15 @@ public class AnnouncementController {
 
     @PostMapping("/mark-read/{userId}")
     public void markAsRead(@PathVariable String userId) {
+        // From the database, not the cache: the whole document is saved back
         userRepository.findByEmail(userId).ifPresent(user -> {
             user.setLastAnnouncementRead(Instant.now());
             userRepository.save(user);
         });
     }
+
+    private List<Announcement> recentAnnouncements() {
+        return listCache.get("announcements:all", List.of("announcements"),
+                announcementRepository::findAllByOrderByDateDesc);
+    }
 }
@@ -3,6 +3,8 @@ package com.snp.backend.controller;
 import com.snp.backend.model.Attendance;
 import com.snp.backend.repository.AttendanceRepository;
 import lombok.Data;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 import java.util.List;
@@ -14,12 +16,20 @@ import java.util.HashSet;
 @CrossOrigin(origins = "*")
 public class AttendanceController {
 
+    private static final Logger log = LoggerFactory.getLogger(AttendanceController.class);
+
     @Autowired
     private AttendanceRepository attendanceRepository;
 
     @Autowired
     private com.snp.backend.repository.UserRepository userRepository;
 
+    @Autowired
+    private com.snp.backend.service.UserCache userCache;
+
+    @Autowired
+    private com.snp.backend.service.LogSampling logSampling;
+
     @GetMapping
     public List<Attendance> getAllAttendance() {
         return attendanceRepository.findAllByOrderByDateDesc();
@@ -63,7 +73,7 @@ public class AttendanceController {
         searchIdentifiers.add(query); // Always search for the raw query
 
         // Try to resolve user by Email
-        userRepository.findByEmail(query).ifPresent(user -> {
+        userCache.findByEmail(query).ifPresent(user -> {
             searchIdentifiers.add(user.getEmail());
             searchIdentifiers.add(user.getId()); // Match by ID
             if (user.getDisplayName() != null)
@@ -71,16 +81,28 @@ public class AttendanceController {
         });
 
         // Try to resolve user by Display Name
-        userRepository.findByDisplayName(query).ifPresent(user -> {
+        userCache.findByDisplayName(query).ifPresent(user -> {
             searchIdentifiers.add(user.getEmail());
             searchIdentifiers.add(user.getId()); // Match by ID
             if (user.getDisplayName() != null)
                 searchIdentifiers.add(user.getDisplayName());
         });
 
-        System.out.println("Searching attendance for identifiers: " + searchIdentifiers);
+        if (log.isDebugEnabled() && logSampling.sample("attendanceHistory")) {
+            log.debug("Searching attendance for identifiers: {}", searchIdentifiers);
+        }
+
+        List<UserAttendanceDTO> history = matchHistory(allSessions, searchIdentifiers);
+
+        return org.springframework.http.ResponseEntity.ok(history);
+    }
 
-        List<UserAttendanceDTO> history = allSessions.stream().map(session -> {
+    /**
+     * Marks each session PRESENT if any of its present ids is one of the
+     * user's identifiers (email, id or display name), ABSENT otherwise.
+     */
+    public static List<UserAttendanceDTO> matchHistory(List<Attendance> sessions, Set<String> searchIdentifiers) {
+        return sessions.stream().map(session -> {
             boolean isPresent = session.getPresentUserIds() != null &&
                     session.getPresentUserIds().stream().anyMatch(searchIdentifiers::contains);
             return new UserAttendanceDTO(
@@ -89,8 +111,6 @@ public class AttendanceController {
                     session.getNotes(),
                     isPresent ? "PRESENT" : "ABSENT");
         }).collect(java.util.stream.Collectors.toList());
-
-        return org.springframework.http.ResponseEntity.ok(history);
     }
 
     @Data
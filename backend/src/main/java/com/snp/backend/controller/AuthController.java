@@ -11,7 +11,6 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
 import com.snp.backend.service.RateLimitService;
-import io.github.bucket4j.Bucket;
 import jakarta.validation.Valid;
 
 import java.util.Optional;
@@ -33,8 +32,7 @@ public class AuthController {
     @PostMapping("/login")
     public ResponseEntity<?> login(@Valid @RequestBody LoginRequest request) {
         // Rate Limiting Check
-        Bucket bucket = rateLimitService.resolveBucket(request.getUsername());
-        if (!bucket.tryConsume(1)) {
+        if (!rateLimitService.tryConsume("login", request.getUsername())) {
             return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
                     .body("Too many login attempts. Please try again later.");
         }
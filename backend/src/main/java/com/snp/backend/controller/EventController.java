@@ -2,6 +2,9 @@ package com.snp.backend.controller;
 
 import com.snp.backend.model.Event;
 import com.snp.backend.repository.EventRepository;
+import com.snp.backend.service.CollectionListCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 import java.time.LocalDateTime;
@@ -12,20 +15,25 @@ import java.util.List;
 @CrossOrigin(origins = "*") // Allow all origins for mobile/web
 public class EventController {
 
+    private static final Logger log = LoggerFactory.getLogger(EventController.class);
+
     @Autowired
     private EventRepository eventRepository;
 
     @Autowired
     private com.snp.backend.repository.AnnouncementRepository announcementRepository;
 
+    @Autowired
+    private CollectionListCache listCache;
+
     @GetMapping
     public List<Event> getAllEvents() {
-        return eventRepository.findAll();
+        return listCache.get("events:all", List.of("events"), eventRepository::findAll);
     }
 
     @GetMapping("/public")
     public List<Event> getPublicEvents() {
-        return eventRepository.findByIsPublicTrue();
+        return listCache.get("events:public", List.of("events"), eventRepository::findByIsPublicTrue);
     }
 
     @PostMapping
@@ -46,7 +54,7 @@ public class EventController {
             announcementRepository.save(announcement);
         } catch (Exception e) {
             // Log error but don't fail event creation
-            System.err.println("Failed to create announcement for event: " + e.getMessage());
+            log.warn("Failed to create announcement for event: {}", e.getMessage());
         }
 
         return savedEvent;
@@ -0,0 +1,95 @@
+package com.snp.backend.controller;
+
+import com.snp.backend.model.Announcement;
+import com.snp.backend.model.Event;
+import com.snp.backend.model.ScheduleEntry;
+import com.snp.backend.repository.reactive.ReactiveAnnouncementRepository;
+import com.snp.backend.repository.reactive.ReactiveEventRepository;
+import com.snp.backend.repository.reactive.ReactiveScheduleRepository;
+import com.snp.backend.service.DashboardEventStream;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDateTime;
+
+/**
+ * Streaming variants of the app-open lists, read with the reactive Mongo
+ * driver.
+ *
+ * Each endpoint streams documents as NDJSON, or as server-sent events when
+ * the client accepts text/event-stream. The request thread is released while
+ * the query runs, and the next document is only requested from Mongo once the
+ * previous one has been written, so a slow client holds a cursor rather than
+ * a thread or a buffered list.
+ */
+@RestController
+@RequestMapping("/api/feed")
+@CrossOrigin(origins = "*")
+public class FeedController {
+
+    @Autowired
+    private ReactiveAnnouncementRepository announcementRepository;
+
+    @Autowired
+    private ReactiveEventRepository eventRepository;
+
+    @Autowired
+    private ReactiveScheduleRepository scheduleRepository;
+
+    @Autowired
+    private DashboardEventStream dashboardEventStream;
+
+    @Value("${feed.max-items:1000}")
+    private int maxItems;
+
+    @GetMapping(value = "/announcements", produces = { MediaType.APPLICATION_NDJSON_VALUE,
+            MediaType.TEXT_EVENT_STREAM_VALUE })
+    public Flux<Announcement> streamAnnouncements() {
+        return announcementRepository.findAllByOrderByDateDesc().take(maxItems);
+    }
+
+    @GetMapping(value = "/events", produces = { MediaType.APPLICATION_NDJSON_VALUE,
+            MediaType.TEXT_EVENT_STREAM_VALUE })
+    public Flux<Event> streamEvents(@RequestParam(defaultValue = "false") boolean publicOnly) {
+        Flux<Event> events = publicOnly ? eventRepository.findByIsPublicTrue() : eventRepository.findAll();
+        return events.take(maxItems);
+    }
+
+    @GetMapping(value = "/schedule", produces = { MediaType.APPLICATION_NDJSON_VALUE,
+            MediaType.TEXT_EVENT_STREAM_VALUE })
+    public Flux<ScheduleEntry> streamSchedule(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        // The range applies only when both ends are given
+        Flux<ScheduleEntry> entries = from != null && to != null
+                ? scheduleRepository.findByDateBetween(from, to)
+                : scheduleRepository.findAll();
+        return entries.take(maxItems);
+    }
+
+    /**
+     * Changes to announcements, events and the schedule as server-sent events.
+     * Browsers resend Last-Event-ID on reconnect; clients that can't set
+     * headers pass it as {@code lastEventId}.
+     */
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamChanges(
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventIdHeader,
+            @RequestParam(required = false) String lastEventId) {
+        try {
+            SseEmitter emitter = dashboardEventStream
+                    .subscribe(lastEventIdHeader != null ? lastEventIdHeader : lastEventId);
+            // Stops nginx-style proxies from buffering the stream
+            return ResponseEntity.ok().header("X-Accel-Buffering", "no").body(emitter);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+}
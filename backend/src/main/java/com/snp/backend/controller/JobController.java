@@ -0,0 +1,47 @@
+package com.snp.backend.controller;
+
+import com.snp.backend.model.Job;
+import com.snp.backend.service.JobService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/jobs")
+@CrossOrigin(origins = "*")
+public class JobController {
+
+    @Autowired
+    private JobService jobService;
+
+    @GetMapping
+    public List<Job> getRecentJobs() {
+        return jobService.getRecentJobs();
+    }
+
+    // Progress, checkpoint and ETA
+    @GetMapping("/{id}")
+    public ResponseEntity<Job> getJob(@PathVariable String id) {
+        return jobService.getJob(id).map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping("/{type}")
+    public ResponseEntity<?> startJob(@PathVariable String type,
+            @RequestBody(required = false) Map<String, String> params) {
+        try {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(jobService.submit(type, params));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        }
+    }
+
+    @PostMapping("/{id}/cancel")
+    public ResponseEntity<Job> cancelJob(@PathVariable String id) {
+        return jobService.cancel(id).map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
+    }
+}
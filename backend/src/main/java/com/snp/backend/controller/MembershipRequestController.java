@@ -2,6 +2,7 @@ package com.snp.backend.controller;
 
 import com.snp.backend.model.MembershipRequest;
 import com.snp.backend.repository.MembershipRequestRepository;
+import com.snp.backend.service.CollectionListCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 import java.time.LocalDateTime;
@@ -21,9 +22,12 @@ public class MembershipRequestController {
     @Autowired
     private org.springframework.security.crypto.password.PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private CollectionListCache listCache;
+
     @GetMapping
     public List<MembershipRequest> getAllRequests() {
-        return requestRepository.findAll();
+        return listCache.get("membership:all", List.of("membership_requests"), requestRepository::findAll);
     }
 
     @PostMapping("/request")
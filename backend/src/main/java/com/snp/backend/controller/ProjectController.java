@@ -1,11 +1,22 @@
 package com.snp.backend.controller;
 
+import com.snp.backend.model.BoardOperation;
 import com.snp.backend.model.Poll;
 import com.snp.backend.model.Project;
 import com.snp.backend.model.User;
 import com.snp.backend.repository.ProjectRepository;
 import com.snp.backend.repository.UserRepository;
+import com.snp.backend.service.BoardBroadcaster;
+import com.snp.backend.service.BoardDestinations;
+import com.snp.backend.service.BoardMergeService;
+import com.snp.backend.service.BoardOperationLog;
+import com.snp.backend.service.BoardPresenceService;
+import com.snp.backend.service.LogSampling;
+import com.snp.backend.service.UserCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -21,12 +32,32 @@ import java.util.stream.Collectors;
 @CrossOrigin(origins = "*")
 public class ProjectController {
 
+    private static final Logger log = LoggerFactory.getLogger(ProjectController.class);
+
     @Autowired
     private ProjectRepository projectRepository;
 
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private BoardPresenceService presenceService;
+
+    @Autowired
+    private BoardMergeService boardMergeService;
+
+    @Autowired
+    private BoardOperationLog boardOperationLog;
+
+    @Autowired
+    private BoardBroadcaster boardBroadcaster;
+
+    @Autowired
+    private LogSampling logSampling;
+
     // Create a new project
     @PostMapping
     public ResponseEntity<Project> createProject(@RequestBody Map<String, String> payload) {
@@ -63,6 +94,51 @@ public class ProjectController {
         return ResponseEntity.ok(all.stream().distinct().collect(Collectors.toList()));
     }
 
+    // Users currently on the project's board (this instance's sessions)
+    @GetMapping("/{projectId}/presence")
+    public List<Map<String, Object>> getPresence(@PathVariable String projectId) {
+        return presenceService.getParticipants(projectId);
+    }
+
+    // Operation log of live board edits, oldest first
+    @GetMapping("/{projectId}/history")
+    public List<BoardOperation> getHistory(@PathVariable String projectId,
+            @RequestParam(defaultValue = "0") long after,
+            @RequestParam(defaultValue = "100") int limit) {
+        return boardOperationLog.getOperations(projectId, after, Math.max(1, Math.min(limit, 1000)));
+    }
+
+    // Board as it was right after operation {seq}
+    @GetMapping("/{projectId}/history/{seq}")
+    public ResponseEntity<?> replayHistory(@PathVariable String projectId, @PathVariable long seq) {
+        try {
+            return ResponseEntity.ok(boardMergeService.replay(projectId, seq));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.GONE).body(e.getMessage());
+        }
+    }
+
+    // Undo the user's latest board edit; the result is relayed to everyone on the board
+    @PostMapping("/{projectId}/undo")
+    public ResponseEntity<?> undo(@PathVariable String projectId, @RequestParam String userId) {
+        boolean undone = boardMergeService.undo(projectId, userId,
+                message -> boardBroadcaster.broadcast(BoardDestinations.nodes(projectId), message));
+        if (!undone) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Nothing to undo");
+        }
+        return ResponseEntity.ok().build();
+    }
+
+    @PostMapping("/{projectId}/redo")
+    public ResponseEntity<?> redo(@PathVariable String projectId, @RequestParam String userId) {
+        boolean redone = boardMergeService.redo(projectId, userId,
+                message -> boardBroadcaster.broadcast(BoardDestinations.nodes(projectId), message));
+        if (!redone) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Nothing to redo");
+        }
+        return ResponseEntity.ok().build();
+    }
+
     // Delete a project
     @DeleteMapping("/{projectId}")
     public ResponseEntity<?> deleteProject(@PathVariable String projectId) {
@@ -89,7 +165,7 @@ public class ProjectController {
             return ResponseEntity.notFound().build();
         }
 
-        Optional<User> userOpt = userRepository.findByDisplayName(usernameToAdd);
+        Optional<User> userOpt = userCache.findByDisplayName(usernameToAdd);
         if (userOpt.isEmpty()) {
             // Try finding by email or username if displayName fails, but for now assume
             // username matches displayName or we need a better lookup
@@ -97,7 +173,7 @@ public class ProjectController {
             // let's check User model)
             // User model has 'email' and 'displayName'.
             // If the input is an email, find by email.
-            userOpt = userRepository.findByEmail(usernameToAdd);
+            userOpt = userCache.findByEmail(usernameToAdd);
         }
 
         if (userOpt.isEmpty()) {
@@ -155,7 +231,10 @@ public class ProjectController {
     public ResponseEntity<Project> votePoll(@PathVariable String projectId, @PathVariable String pollId,
             @RequestBody Map<String, Object> payload) {
         try {
-            System.out.println("DEBUG: Entering votePoll for pollId: " + pollId);
+            boolean trace = log.isDebugEnabled() && logSampling.sample("votePoll");
+            if (trace) {
+                log.debug("Entering votePoll for pollId: {}", pollId);
+            }
 
             String userId = (String) payload.get("userId");
             Object optionIdxObj = payload.get("optionIndex");
@@ -171,7 +250,9 @@ public class ProjectController {
                 optionIndex = Integer.parseInt(optionIdxObj.toString());
             }
 
-            System.out.println("DEBUG: Parsed optionIndex: " + optionIndex + ", userId: " + userId);
+            if (trace) {
+                log.debug("Parsed optionIndex: {}, userId: {}", optionIndex, userId);
+            }
 
             Optional<Project> projectOpt = projectRepository.findById(projectId);
             if (projectOpt.isEmpty()) {
@@ -193,58 +274,21 @@ public class ProjectController {
                 return ResponseEntity.badRequest().body(project); // Poll closed
             }
 
-            if (poll.getVotes() == null) {
-                System.out.println("DEBUG: poll.getVotes() is null, initializing.");
-                poll.setVotes(new java.util.HashMap<>());
-            }
-
-            // Handle migration: existing data could be Integer or List<Integer>
-            List<Integer> userVotes = new ArrayList<>();
-            Object rawVotes = poll.getVotes().get(userId);
-            System.out.println(
-                    "DEBUG: RawVotes for user: " + (rawVotes == null ? "null" : rawVotes.getClass().getName()));
-
-            if (rawVotes instanceof Integer) {
-                userVotes.add((Integer) rawVotes);
-            } else if (rawVotes instanceof List) {
-                List<?> list = (List<?>) rawVotes;
-                for (Object o : list) {
-                    if (o instanceof Integer) {
-                        userVotes.add((Integer) o);
-                    } else {
-                        System.out.println("DEBUG: Found non-integer in vote list: "
-                                + (o == null ? "null" : o.getClass().getName()));
-                    }
-                }
+            Object rawVotes = poll.getVotes() != null ? poll.getVotes().get(userId) : null;
+            if (trace) {
+                log.debug("RawVotes for user: {}", rawVotes == null ? "null" : rawVotes.getClass().getName());
             }
 
-            if (poll.isMultiSelect()) {
-                // Toggle vote
-                Integer val = Integer.valueOf(optionIndex);
-                if (userVotes.contains(val)) {
-                    userVotes.remove(val);
-                } else {
-                    userVotes.add(val);
-                }
-            } else {
-                // Single select: replace
-                userVotes.clear();
-                userVotes.add(optionIndex);
-            }
-
-            // Remove entry if no votes left (optional, but cleaner)
-            if (userVotes.isEmpty()) {
-                poll.getVotes().remove(userId);
-            } else {
-                poll.getVotes().put(userId, userVotes);
-            }
+            // Handles migration: existing data could be Integer or List<Integer>
+            poll.recordVote(userId, optionIndex);
 
             Project saved = projectRepository.save(project);
-            System.out.println("DEBUG: Project saved successfully.");
+            if (trace) {
+                log.debug("Project saved successfully.");
+            }
             return ResponseEntity.ok(saved);
         } catch (Exception e) {
-            System.err.println("CRITICAL ERROR IN VOTE POLL:");
-            e.printStackTrace();
+            log.error("Vote failed for poll {} in project {}", pollId, projectId, e);
             throw e;
         }
     }
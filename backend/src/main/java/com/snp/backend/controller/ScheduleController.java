@@ -6,6 +6,9 @@ import com.snp.backend.model.ScheduleEntry;
 import com.snp.backend.repository.AnnouncementRepository;
 import com.snp.backend.repository.EventRepository;
 import com.snp.backend.repository.ScheduleRepository;
+import com.snp.backend.service.CollectionListCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -18,6 +21,8 @@ import java.util.List;
 @CrossOrigin(origins = "*")
 public class ScheduleController {
 
+    private static final Logger log = LoggerFactory.getLogger(ScheduleController.class);
+
     @Autowired
     private ScheduleRepository scheduleRepository;
 
@@ -27,9 +32,12 @@ public class ScheduleController {
     @Autowired
     private AnnouncementRepository announcementRepository;
 
+    @Autowired
+    private CollectionListCache listCache;
+
     @GetMapping
     public List<ScheduleEntry> getAllEntries() {
-        return scheduleRepository.findAll();
+        return listCache.get("schedule:all", List.of("schedule_entries"), scheduleRepository::findAll);
     }
 
     @PostMapping
@@ -53,7 +61,7 @@ public class ScheduleController {
                         saved.getCreatedBy());
                 eventRepository.save(event);
             } catch (Exception e) {
-                System.err.println("Failed to sync Schedule to Event: " + e.getMessage());
+                log.warn("Failed to sync Schedule to Event: {}", e.getMessage());
             }
         }
 
@@ -80,7 +88,7 @@ public class ScheduleController {
 
             announcementRepository.save(announcement);
         } catch (Exception e) {
-            System.err.println("Failed to create Announcement for Schedule: " + e.getMessage());
+            log.warn("Failed to create Announcement for Schedule: {}", e.getMessage());
         }
 
         return saved;
@@ -2,7 +2,12 @@ package com.snp.backend.controller;
 
 import com.snp.backend.model.User;
 import com.snp.backend.repository.UserRepository;
+import com.snp.backend.service.CollectionListCache;
+import com.snp.backend.service.UserDirectoryService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import java.util.List;
 import java.util.Map;
@@ -12,22 +17,48 @@ import java.util.Map;
 @CrossOrigin(origins = "*")
 public class UserController {
 
+    private static final Logger log = LoggerFactory.getLogger(UserController.class);
+
     @Autowired
     private UserRepository userRepository;
 
     @Autowired
     private org.springframework.security.crypto.password.PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private UserDirectoryService userDirectoryService;
+
+    @Autowired
+    private CollectionListCache listCache;
+
     @GetMapping
     public List<User> getAllUsers() {
-        List<User> users = userRepository.findAll();
-        users.forEach(u -> u.setPasswordHash(null));
-        return users;
+        return listCache.get("users:all", List.of("users"), userRepository::findAllWithoutPasswordHash);
+    }
+
+    // Filtered, paginated member list. Pass nextCursor back as "after" for the next
+    // page; "fields" restricts the returned fields (comma separated).
+    @GetMapping("/directory")
+    public ResponseEntity<?> getDirectory(@RequestParam(required = false) String domain,
+            @RequestParam(required = false) String department,
+            @RequestParam(required = false) String year,
+            @RequestParam(required = false) String section,
+            @RequestParam(required = false) String role,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "" + UserDirectoryService.DEFAULT_LIMIT) int limit,
+            @RequestParam(required = false) List<String> fields) {
+        try {
+            UserDirectoryService.Filter filter = new UserDirectoryService.Filter(domain, department, year, section,
+                    role);
+            return ResponseEntity.ok(userDirectoryService.find(filter, after, limit, fields));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
     @PutMapping("/{username}")
     public User updateUserProfile(@PathVariable String username, @RequestBody User updatedUser) {
-        System.out.println("Updating profile for: " + username);
+        log.info("Updating profile for: {}", username);
         User user = userRepository.findByEmail(username).orElse(null);
 
         if (user == null) {
@@ -82,13 +113,12 @@ public class UserController {
                     existingLeads.removeIf(u -> u.getId().equals(user.getId()));
 
                     if (!existingLeads.isEmpty()) {
-                        System.out.println("Conflict: Domain " + newLeadDomain + " already led by "
-                                + existingLeads.get(0).getEmail());
+                        log.info("Conflict: Domain {} already led by {}", newLeadDomain,
+                                existingLeads.get(0).getEmail());
                         throw new RuntimeException("Domain " + newLeadDomain + " already has a lead.");
                     }
                 } catch (Exception e) {
-                    System.out.println("Error verifying lead status: " + e.getMessage());
-                    e.printStackTrace();
+                    log.warn("Error verifying lead status: {}", e.getMessage());
                     if (e instanceof RuntimeException) {
                         throw (RuntimeException) e;
                     }
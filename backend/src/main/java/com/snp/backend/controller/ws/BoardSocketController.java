@@ -1,40 +1,120 @@
 package com.snp.backend.controller.ws;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.snp.backend.model.ws.CursorMessage;
+import com.snp.backend.model.ws.NodeDelta;
 import com.snp.backend.model.ws.NodeMessage;
+import com.snp.backend.service.BoardBroadcaster;
+import com.snp.backend.service.BoardDestinations;
+import com.snp.backend.service.BoardMergeService;
+import com.snp.backend.service.BoardPresenceService;
+import com.snp.backend.service.CursorFrame;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.messaging.handler.annotation.DestinationVariable;
+import org.springframework.messaging.handler.annotation.MessageExceptionHandler;
 import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.messaging.handler.annotation.Payload;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.annotation.SubscribeMapping;
 import org.springframework.stereotype.Controller;
 
+import java.io.IOException;
+import java.util.Map;
+
 @Controller
 public class BoardSocketController {
 
-    private final SimpMessagingTemplate messagingTemplate;
+    private static final Logger log = LoggerFactory.getLogger(BoardSocketController.class);
+
+    private final BoardBroadcaster broadcaster;
+    private final BoardPresenceService presenceService;
+    private final BoardMergeService mergeService;
+    private final ObjectMapper objectMapper;
 
-    public BoardSocketController(SimpMessagingTemplate messagingTemplate) {
-        this.messagingTemplate = messagingTemplate;
+    public BoardSocketController(BoardBroadcaster broadcaster, BoardPresenceService presenceService,
+            BoardMergeService mergeService, ObjectMapper objectMapper) {
+        this.broadcaster = broadcaster;
+        this.presenceService = presenceService;
+        this.mergeService = mergeService;
+        this.objectMapper = objectMapper;
     }
 
     /**
      * Handles cursor movements.
      * Client sends to: /app/project.moveCursor
      * Server broadcasts to: /topic/project.{projectId}.cursors
+     * The most frequent message by far: a well-formed frame is relayed as the
+     * client's own bytes (CursorFrame), anything else goes through Jackson.
      */
     @MessageMapping("/project.moveCursor")
-    public void moveCursor(@Payload CursorMessage message) {
-        String destination = "/topic/project." + message.getProjectId() + ".cursors";
-        messagingTemplate.convertAndSend(destination, message);
+    public void moveCursor(@Payload byte[] frame,
+            @Header(SimpMessageHeaderAccessor.SESSION_ID_HEADER) String sessionId) {
+        CursorFrame cursor = CursorFrame.read(frame);
+        if (cursor == null) {
+            moveCursor(readCursor(frame), sessionId);
+            return;
+        }
+        // Clients that don't send a userId CONNECT header are identified by their cursor
+        if (presenceService.getUserId(sessionId) == null) {
+            presenceService.bindUser(sessionId, cursor.userId());
+        }
+        broadcaster.broadcastJson(cursor.destination(), cursor.json());
+    }
+
+    private void moveCursor(CursorMessage message, String sessionId) {
+        presenceService.bindUser(sessionId, message.getUserId());
+        String destination = BoardDestinations.cursors(message.getProjectId());
+        broadcaster.broadcast(destination, message);
+    }
+
+    private CursorMessage readCursor(byte[] frame) {
+        try {
+            return objectMapper.readValue(frame, CursorMessage.class);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Malformed cursor message", e);
+        }
     }
 
     /**
      * Handles node updates (add, move, resize, delete).
      * Client sends to: /app/project.updateNode
      * Server broadcasts to: /topic/project.{projectId}
+     * Node edits are merged with concurrent ones and relayed as the merged node.
      */
     @MessageMapping("/project.updateNode")
-    public void updateNode(@Payload NodeMessage message) {
-        String destination = "/topic/project." + message.getProjectId();
-        messagingTemplate.convertAndSend(destination, message);
+    public void updateNode(@Payload NodeMessage message,
+            @Header(SimpMessageHeaderAccessor.SESSION_ID_HEADER) String sessionId) {
+        String destination = BoardDestinations.nodes(message.getProjectId());
+        mergeService.merge(message, sessionId, merged -> broadcaster.broadcast(destination, merged));
+    }
+
+    /**
+     * Handles partial node edits (position, size, label) while dragging or typing.
+     * Client sends to: /app/project.patchNode
+     * Server broadcasts to: /topic/project.{projectId}
+     */
+    @MessageMapping("/project.patchNode")
+    public void patchNode(@Payload NodeDelta delta,
+            @Header(SimpMessageHeaderAccessor.SESSION_ID_HEADER) String sessionId) {
+        String destination = BoardDestinations.nodes(delta.getProjectId());
+        mergeService.applyDelta(delta, sessionId, relayed -> broadcaster.broadcast(destination, relayed));
+    }
+
+    /**
+     * Answers a joining client with the board's clock, so the edits it sends
+     * continue from there rather than from zero.
+     * Client subscribes to: /app/project.{projectId}.clock (one reply, to that session only)
+     */
+    @SubscribeMapping("/project.{projectId}.clock")
+    public Map<String, Object> boardClock(@DestinationVariable String projectId) {
+        return Map.of("projectId", projectId, "clock", mergeService.getClock(projectId));
+    }
+
+    // Malformed deltas and edits with an implausible clock are dropped; the sender's next full update repairs its copy
+    @MessageExceptionHandler(IllegalArgumentException.class)
+    public void rejectMessage(IllegalArgumentException e) {
+        log.warn("Rejected board message: {}", e.getMessage());
     }
 }
@@ -0,0 +1,200 @@
+package com.snp.backend.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * One applied board edit in a project's append-only operation log.
+ *
+ * {@link #fields}, {@link #stamp} and {@link #origin} are exactly what was
+ * written to the board's registers, so replaying operations in sequence order
+ * rebuilds the board. {@link #previous} holds the touched fields' values
+ * before the edit and is what undo restores.
+ */
+@Document(collection = "board_ops")
+public class BoardOperation {
+
+    public enum Kind {
+        EDIT,
+        UNDO,
+        REDO
+    }
+
+    public enum Action {
+        PUT,
+        DELETE
+    }
+
+    @Id
+    private String id;
+    private String projectId;
+    private long seq; // Per-project and unique; instances reserve blocks, so there can be gaps
+    private Kind kind;
+    private String userId; // Null until the session's user is known
+    private String sessionId; // STOMP session that made the edit, if any
+    private String origin;
+
+    private String tool;
+    private String nodeId;
+    private Action action;
+    private Map<String, Object> fields; // Written values (PUT only)
+    private Map<String, Object> previous; // Values before the edit
+    private boolean previousVisible; // False if the edit created the node
+    private long stamp;
+
+    private Long targetSeq; // UNDO/REDO: the edit being undone or redone
+    private boolean undone; // EDIT/REDO that a later UNDO reverted
+    private boolean redone; // UNDO that a later REDO reverted
+
+    private Instant createdAt;
+
+    public BoardOperation() {
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getProjectId() {
+        return projectId;
+    }
+
+    public void setProjectId(String projectId) {
+        this.projectId = projectId;
+    }
+
+    public long getSeq() {
+        return seq;
+    }
+
+    public void setSeq(long seq) {
+        this.seq = seq;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public void setKind(Kind kind) {
+        this.kind = kind;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public String getSessionId() {
+        return sessionId;
+    }
+
+    public void setSessionId(String sessionId) {
+        this.sessionId = sessionId;
+    }
+
+    public String getOrigin() {
+        return origin;
+    }
+
+    public void setOrigin(String origin) {
+        this.origin = origin;
+    }
+
+    public String getTool() {
+        return tool;
+    }
+
+    public void setTool(String tool) {
+        this.tool = tool;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public void setNodeId(String nodeId) {
+        this.nodeId = nodeId;
+    }
+
+    public Action getAction() {
+        return action;
+    }
+
+    public void setAction(Action action) {
+        this.action = action;
+    }
+
+    public Map<String, Object> getFields() {
+        return fields;
+    }
+
+    public void setFields(Map<String, Object> fields) {
+        this.fields = fields;
+    }
+
+    public Map<String, Object> getPrevious() {
+        return previous;
+    }
+
+    public void setPrevious(Map<String, Object> previous) {
+        this.previous = previous;
+    }
+
+    public boolean isPreviousVisible() {
+        return previousVisible;
+    }
+
+    public void setPreviousVisible(boolean previousVisible) {
+        this.previousVisible = previousVisible;
+    }
+
+    public long getStamp() {
+        return stamp;
+    }
+
+    public void setStamp(long stamp) {
+        this.stamp = stamp;
+    }
+
+    public Long getTargetSeq() {
+        return targetSeq;
+    }
+
+    public void setTargetSeq(Long targetSeq) {
+        this.targetSeq = targetSeq;
+    }
+
+    public boolean isUndone() {
+        return undone;
+    }
+
+    public void setUndone(boolean undone) {
+        this.undone = undone;
+    }
+
+    public boolean isRedone() {
+        return redone;
+    }
+
+    public void setRedone(boolean redone) {
+        this.redone = redone;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,115 @@
+package com.snp.backend.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Visible nodes of a board as of operation {@link #seq}. Recovery and replay
+ * start from the latest snapshot at or before the wanted sequence number and
+ * apply the operations after it.
+ */
+@Document(collection = "board_snapshots")
+public class BoardSnapshot {
+
+    @Id
+    private String id;
+    private String projectId;
+    private long seq;
+    private long clock;
+    private List<Node> nodes;
+    private Instant createdAt;
+
+    public BoardSnapshot() {
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getProjectId() {
+        return projectId;
+    }
+
+    public void setProjectId(String projectId) {
+        this.projectId = projectId;
+    }
+
+    public long getSeq() {
+        return seq;
+    }
+
+    public void setSeq(long seq) {
+        this.seq = seq;
+    }
+
+    public long getClock() {
+        return clock;
+    }
+
+    public void setClock(long clock) {
+        this.clock = clock;
+    }
+
+    public List<Node> getNodes() {
+        return nodes;
+    }
+
+    public void setNodes(List<Node> nodes) {
+        this.nodes = nodes;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public static class Node {
+        private String key; // "{tool}:{nodeId}"
+        private long version;
+        private Map<String, Object> fields;
+
+        public Node() {
+        }
+
+        public Node(String key, long version, Map<String, Object> fields) {
+            this.key = key;
+            this.version = version;
+            this.fields = fields;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public void setKey(String key) {
+            this.key = key;
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        public void setVersion(long version) {
+            this.version = version;
+        }
+
+        public Map<String, Object> getFields() {
+            return fields;
+        }
+
+        public void setFields(Map<String, Object> fields) {
+            this.fields = fields;
+        }
+    }
+}
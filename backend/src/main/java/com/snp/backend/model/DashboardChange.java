@@ -0,0 +1,56 @@
+package com.snp.backend.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * One change pushed on the dashboard event stream.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class DashboardChange {
+    private String type; // "SAVE", "DELETE", "RESET" (refetch the collection, or everything if null)
+    private String collection; // "announcements", "events", "schedule"
+    private String id;
+    private Object document; // The saved document, for SAVE
+
+    public DashboardChange() {
+    }
+
+    public DashboardChange(String type, String collection, String id, Object document) {
+        this.type = type;
+        this.collection = collection;
+        this.id = id;
+        this.document = document;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public String getCollection() {
+        return collection;
+    }
+
+    public void setCollection(String collection) {
+        this.collection = collection;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public Object getDocument() {
+        return document;
+    }
+
+    public void setDocument(Object document) {
+        this.document = document;
+    }
+}
@@ -0,0 +1,222 @@
+package com.snp.backend.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A background maintenance job. Progress is checkpointed after every chunk so
+ * an interrupted job resumes from {@link #checkpoint} instead of starting over.
+ */
+@Document(collection = "admin_jobs")
+public class Job {
+
+    public enum Status {
+        QUEUED,
+        RUNNING,
+        COMPLETED,
+        FAILED,
+        CANCELLED
+    }
+
+    @Id
+    private String id;
+    private String type;
+    private Status status;
+    private Map<String, String> params;
+
+    private String checkpoint; // Handler-specific position, e.g. last processed _id
+    private long processed;
+    private Long total; // Estimated, null if unknown
+    private boolean cancelRequested;
+    private String error;
+
+    private Instant createdAt;
+    private Instant startedAt;
+    private Instant updatedAt;
+    private Instant finishedAt;
+
+    // Processed count when the current run started, for the rate/ETA estimate
+    private long runStartProcessed;
+
+    // The instance running the job, and until when; another may take it over after that
+    private String owner;
+    private Instant leaseExpiresAt;
+
+    public Job() {
+        this.params = new HashMap<>();
+    }
+
+    public Job(String type, Map<String, String> params) {
+        this.type = type;
+        this.status = Status.QUEUED;
+        this.params = params != null ? new HashMap<>(params) : new HashMap<>();
+        this.createdAt = Instant.now();
+        this.updatedAt = this.createdAt;
+    }
+
+    public boolean isFinished() {
+        return status == Status.COMPLETED || status == Status.FAILED || status == Status.CANCELLED;
+    }
+
+    public int getIntParam(String name, int defaultValue) {
+        String value = params != null ? params.get(name) : null;
+        if (value == null || value.isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Remaining seconds based on the rate of the current run, or null if it
+     * cannot be estimated yet.
+     */
+    public Long getEtaSeconds() {
+        if (status != Status.RUNNING || total == null || startedAt == null) {
+            return null;
+        }
+        long done = processed - runStartProcessed;
+        if (done <= 0) {
+            return null;
+        }
+        long elapsedMs = Duration.between(startedAt, Instant.now()).toMillis();
+        long remaining = Math.max(0, total - processed);
+        return remaining * elapsedMs / done / 1000;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public Map<String, String> getParams() {
+        return params;
+    }
+
+    public void setParams(Map<String, String> params) {
+        this.params = params;
+    }
+
+    public String getCheckpoint() {
+        return checkpoint;
+    }
+
+    public void setCheckpoint(String checkpoint) {
+        this.checkpoint = checkpoint;
+    }
+
+    public long getProcessed() {
+        return processed;
+    }
+
+    public void setProcessed(long processed) {
+        this.processed = processed;
+    }
+
+    public Long getTotal() {
+        return total;
+    }
+
+    public void setTotal(Long total) {
+        this.total = total;
+    }
+
+    public boolean isCancelRequested() {
+        return cancelRequested;
+    }
+
+    public void setCancelRequested(boolean cancelRequested) {
+        this.cancelRequested = cancelRequested;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(Instant startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(Instant finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    public long getRunStartProcessed() {
+        return runStartProcessed;
+    }
+
+    public void setRunStartProcessed(long runStartProcessed) {
+        this.runStartProcessed = runStartProcessed;
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    public void setOwner(String owner) {
+        this.owner = owner;
+    }
+
+    public Instant getLeaseExpiresAt() {
+        return leaseExpiresAt;
+    }
+
+    public void setLeaseExpiresAt(Instant leaseExpiresAt) {
+        this.leaseExpiresAt = leaseExpiresAt;
+    }
+}
@@ -97,4 +97,53 @@ public class Poll {
     public void setMultiSelect(boolean multiSelect) {
         this.multiSelect = multiSelect;
     }
+
+    /**
+     * Applies a user's vote: toggles the option for multi-select polls,
+     * replaces the user's vote otherwise. Users with no votes left are removed.
+     */
+    public void recordVote(String userId, int optionIndex) {
+        if (votes == null) {
+            votes = new HashMap<>();
+        }
+        List<Integer> userVotes = normalizeVotes(votes.get(userId));
+
+        if (multiSelect) {
+            // Toggle vote
+            Integer val = Integer.valueOf(optionIndex);
+            if (userVotes.contains(val)) {
+                userVotes.remove(val);
+            } else {
+                userVotes.add(val);
+            }
+        } else {
+            // Single select: replace
+            userVotes.clear();
+            userVotes.add(optionIndex);
+        }
+
+        if (userVotes.isEmpty()) {
+            votes.remove(userId);
+        } else {
+            votes.put(userId, userVotes);
+        }
+    }
+
+    /**
+     * A stored vote as a mutable list. Older documents hold a single Integer,
+     * newer ones a List; non-integer entries are dropped.
+     */
+    public static List<Integer> normalizeVotes(Object rawVotes) {
+        List<Integer> userVotes = new ArrayList<>();
+        if (rawVotes instanceof Integer) {
+            userVotes.add((Integer) rawVotes);
+        } else if (rawVotes instanceof List) {
+            for (Object o : (List<?>) rawVotes) {
+                if (o instanceof Integer) {
+                    userVotes.add((Integer) o);
+                }
+            }
+        }
+        return userVotes;
+    }
 }
@@ -0,0 +1,124 @@
+package com.snp.backend.model.ws;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Changed fields of a single node, sent instead of the whole node while
+ * dragging, resizing or typing. Only non-null fields are applied and relayed.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class NodeDelta {
+    public static final String TYPE = "DELTA";
+
+    private String tool; // "flowchart", "mindmap", "timeline"
+    private String projectId;
+    private String nodeId;
+    private Double x;
+    private Double y;
+    private Double width;
+    private Double height;
+    private String label; // Full replacement; relayed as the merged label
+    private TextPatch text; // Splice into the current label, never relayed
+    private Long clock;
+    private String origin;
+
+    public NodeDelta() {
+    }
+
+    // Lets subscribers of the node topic tell deltas from NodeMessages
+    public String getType() {
+        return TYPE;
+    }
+
+    public void setType(String type) {
+        // Fixed
+    }
+
+    public String getTool() {
+        return tool;
+    }
+
+    public void setTool(String tool) {
+        this.tool = tool;
+    }
+
+    public String getProjectId() {
+        return projectId;
+    }
+
+    public void setProjectId(String projectId) {
+        this.projectId = projectId;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public void setNodeId(String nodeId) {
+        this.nodeId = nodeId;
+    }
+
+    public Double getX() {
+        return x;
+    }
+
+    public void setX(Double x) {
+        this.x = x;
+    }
+
+    public Double getY() {
+        return y;
+    }
+
+    public void setY(Double y) {
+        this.y = y;
+    }
+
+    public Double getWidth() {
+        return width;
+    }
+
+    public void setWidth(Double width) {
+        this.width = width;
+    }
+
+    public Double getHeight() {
+        return height;
+    }
+
+    public void setHeight(Double height) {
+        this.height = height;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public void setLabel(String label) {
+        this.label = label;
+    }
+
+    public TextPatch getText() {
+        return text;
+    }
+
+    public void setText(TextPatch text) {
+        this.text = text;
+    }
+
+    public Long getClock() {
+        return clock;
+    }
+
+    public void setClock(Long clock) {
+        this.clock = clock;
+    }
+
+    public String getOrigin() {
+        return origin;
+    }
+
+    public void setOrigin(String origin) {
+        this.origin = origin;
+    }
+}
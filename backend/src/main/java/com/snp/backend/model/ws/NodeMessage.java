@@ -11,6 +11,9 @@ public class NodeMessage {
     private String projectId;
     private String nodeId;
     private Map<String, Object> data; // Flexible JSON data for the node
+    private String action; // Mindmap/timeline sub-action, mirrored from data on relay
+    private Long clock; // Lamport clock: last clock the sender saw, node version on relay
+    private String origin; // Replica id used to break clock ties, defaults to the session
 
     public NodeMessage() {
     }
@@ -53,4 +56,28 @@ public class NodeMessage {
     public void setData(Map<String, Object> data) {
         this.data = data;
     }
+
+    public String getAction() {
+        return action;
+    }
+
+    public void setAction(String action) {
+        this.action = action;
+    }
+
+    public Long getClock() {
+        return clock;
+    }
+
+    public void setClock(Long clock) {
+        this.clock = clock;
+    }
+
+    public String getOrigin() {
+        return origin;
+    }
+
+    public void setOrigin(String origin) {
+        this.origin = origin;
+    }
 }
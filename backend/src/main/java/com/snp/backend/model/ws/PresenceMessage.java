@@ -0,0 +1,52 @@
+package com.snp.backend.model.ws;
+
+import java.util.List;
+
+public class PresenceMessage {
+    private String type; // "JOIN", "LEAVE"
+    private String projectId;
+    private String userId;
+    private List<String> participants; // All user ids on the board after this event
+
+    public PresenceMessage() {
+    }
+
+    public PresenceMessage(String type, String projectId, String userId, List<String> participants) {
+        this.type = type;
+        this.projectId = projectId;
+        this.userId = userId;
+        this.participants = participants;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public String getProjectId() {
+        return projectId;
+    }
+
+    public void setProjectId(String projectId) {
+        this.projectId = projectId;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public List<String> getParticipants() {
+        return participants;
+    }
+
+    public void setParticipants(List<String> participants) {
+        this.participants = participants;
+    }
+}
@@ -0,0 +1,44 @@
+package com.snp.backend.model.ws;
+
+/**
+ * Splice applied to a node's label: removes {@code delete} characters at
+ * {@code at} and inserts {@code insert} there.
+ */
+public class TextPatch {
+    private int at;
+    private int delete;
+    private String insert;
+
+    public TextPatch() {
+    }
+
+    public TextPatch(int at, int delete, String insert) {
+        this.at = at;
+        this.delete = delete;
+        this.insert = insert;
+    }
+
+    public int getAt() {
+        return at;
+    }
+
+    public void setAt(int at) {
+        this.at = at;
+    }
+
+    public int getDelete() {
+        return delete;
+    }
+
+    public void setDelete(int delete) {
+        this.delete = delete;
+    }
+
+    public String getInsert() {
+        return insert;
+    }
+
+    public void setInsert(String insert) {
+        this.insert = insert;
+    }
+}
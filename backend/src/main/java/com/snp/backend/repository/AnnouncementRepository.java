@@ -6,8 +6,4 @@ import java.util.List;
 
 public interface AnnouncementRepository extends MongoRepository<Announcement, String> {
     List<Announcement> findAllByOrderByDateDesc();
-
-    void deleteByDateBefore(java.time.Instant date);
-
-    void deleteByExpiryDateBefore(java.time.Instant date);
 }
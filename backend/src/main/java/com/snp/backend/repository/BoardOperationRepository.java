@@ -0,0 +1,29 @@
+package com.snp.backend.repository;
+
+import com.snp.backend.model.BoardOperation;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface BoardOperationRepository extends MongoRepository<BoardOperation, String> {
+    List<BoardOperation> findByProjectIdAndSeqBetweenOrderBySeqAsc(String projectId, long fromExclusive,
+            long toInclusive);
+
+    Optional<BoardOperation> findTopByProjectIdOrderBySeqDesc(String projectId);
+
+    Optional<BoardOperation> findTopByProjectIdOrderBySeqAsc(String projectId);
+
+    Optional<BoardOperation> findByProjectIdAndSeq(String projectId, long seq);
+
+    Optional<BoardOperation> findTopByProjectIdAndUserIdAndKindInAndUndoneFalseOrderBySeqDesc(String projectId,
+            String userId, Collection<BoardOperation.Kind> kinds);
+
+    Optional<BoardOperation> findTopByProjectIdAndUserIdAndKindOrderBySeqDesc(String projectId, String userId,
+            BoardOperation.Kind kind);
+
+    Optional<BoardOperation> findTopByProjectIdAndUserIdAndKindAndRedoneFalseAndSeqGreaterThanOrderBySeqDesc(
+            String projectId, String userId, BoardOperation.Kind kind, long seq);
+
+    void deleteByProjectIdAndSeqLessThanEqual(String projectId, long seq);
+}
@@ -0,0 +1,14 @@
+package com.snp.backend.repository;
+
+import com.snp.backend.model.BoardSnapshot;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import java.util.List;
+import java.util.Optional;
+
+public interface BoardSnapshotRepository extends MongoRepository<BoardSnapshot, String> {
+    Optional<BoardSnapshot> findTopByProjectIdOrderBySeqDesc(String projectId);
+
+    Optional<BoardSnapshot> findTopByProjectIdAndSeqLessThanEqualOrderBySeqDesc(String projectId, long seq);
+
+    List<BoardSnapshot> findByProjectIdOrderBySeqDesc(String projectId);
+}
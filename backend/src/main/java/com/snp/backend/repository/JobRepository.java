@@ -0,0 +1,12 @@
+package com.snp.backend.repository;
+
+import com.snp.backend.model.Job;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import java.util.Collection;
+import java.util.List;
+
+public interface JobRepository extends MongoRepository<Job, String> {
+    List<Job> findTop50ByOrderByCreatedAtDesc();
+
+    boolean existsByTypeAndStatusIn(String type, Collection<Job.Status> statuses);
+}
@@ -7,6 +7,4 @@ import java.util.List;
 
 public interface ScheduleRepository extends MongoRepository<ScheduleEntry, String> {
     List<ScheduleEntry> findByDateBetween(LocalDateTime start, LocalDateTime end);
-
-    void deleteByDateBefore(LocalDateTime date);
 }
@@ -2,12 +2,17 @@ package com.snp.backend.repository;
 
 import com.snp.backend.model.User;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends MongoRepository<User, String> {
+
+    /** Collation of the case-insensitive lookups; IndexBootstrapper builds their indexes with the same one. */
+    String CASE_INSENSITIVE = "{ 'locale' : 'en', 'strength' : 2 }";
+
     Optional<User> findByEmail(String email);
 
     Optional<User> findByDisplayName(String displayName);
@@ -16,7 +21,15 @@ public interface UserRepository extends MongoRepository<User, String> {
 
     java.util.List<User> findByLeadOfDomain(String leadOfDomain);
 
+    // Case-insensitive equality through a collation rather than a regex, so the
+    // email_ci and displayName_ci indexes (IndexBootstrapper) can serve them
+    @Query(value = "{ 'email': ?0 }", collation = CASE_INSENSITIVE)
     Optional<User> findByEmailIgnoreCase(String email);
 
+    @Query(value = "{ 'displayName': ?0 }", collation = CASE_INSENSITIVE)
     Optional<User> findByDisplayNameIgnoreCase(String displayName);
+
+    // Never reads the password hash from the database
+    @Query(value = "{}", fields = "{ 'passwordHash': 0 }")
+    java.util.List<User> findAllWithoutPasswordHash();
 }
@@ -0,0 +1,9 @@
+package com.snp.backend.repository.reactive;
+
+import com.snp.backend.model.Announcement;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Flux;
+
+public interface ReactiveAnnouncementRepository extends ReactiveMongoRepository<Announcement, String> {
+    Flux<Announcement> findAllByOrderByDateDesc();
+}
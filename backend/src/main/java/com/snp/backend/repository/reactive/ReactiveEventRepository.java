@@ -0,0 +1,9 @@
+package com.snp.backend.repository.reactive;
+
+import com.snp.backend.model.Event;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Flux;
+
+public interface ReactiveEventRepository extends ReactiveMongoRepository<Event, String> {
+    Flux<Event> findByIsPublicTrue();
+}
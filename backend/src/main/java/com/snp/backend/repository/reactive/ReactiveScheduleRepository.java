@@ -0,0 +1,11 @@
+package com.snp.backend.repository.reactive;
+
+import com.snp.backend.model.ScheduleEntry;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDateTime;
+
+public interface ReactiveScheduleRepository extends ReactiveMongoRepository<ScheduleEntry, String> {
+    Flux<ScheduleEntry> findByDateBetween(LocalDateTime start, LocalDateTime end);
+}
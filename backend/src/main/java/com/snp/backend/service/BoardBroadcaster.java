@@ -0,0 +1,36 @@
+package com.snp.backend.service;
+
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.MimeTypeUtils;
+
+/**
+ * Fans board messages out to every subscriber of a destination, on this node
+ * and, depending on the implementation, on every other backend instance.
+ *
+ * Selected with {@code websocket.cluster.mode}: {@code local} (default, single
+ * instance) or {@code mongo} (multi-instance via a capped collection).
+ */
+public interface BoardBroadcaster {
+
+    void broadcast(String destination, Object payload);
+
+    /**
+     * Broadcasts a payload that is already JSON, e.g. a client's cursor frame,
+     * without converting it again. The bytes must not be modified afterwards.
+     */
+    void broadcastJson(String destination, byte[] json);
+
+    /**
+     * A broker message for JSON bytes, with its headers left mutable so
+     * SimpMessagingTemplate.send completes them in place instead of copying.
+     */
+    static Message<byte[]> jsonMessage(byte[] json) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        accessor.setLeaveMutable(true);
+        return MessageBuilder.createMessage(json, accessor.getMessageHeaders());
+    }
+}
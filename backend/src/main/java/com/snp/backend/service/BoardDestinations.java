@@ -0,0 +1,108 @@
+package com.snp.backend.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * STOMP destinations used by the collaborative boards.
+ */
+public final class BoardDestinations {
+
+    public static final String PROJECT_TOPIC_PREFIX = "/topic/project.";
+    public static final String CURSORS_SUFFIX = ".cursors";
+    public static final String PRESENCE_SUFFIX = ".presence";
+
+    private static final String PROJECT_PATTERN = PROJECT_TOPIC_PREFIX + "{projectId}";
+    private static final String CURSORS_PATTERN = PROJECT_PATTERN + CURSORS_SUFFIX;
+    private static final String PRESENCE_PATTERN = PROJECT_PATTERN + PRESENCE_SUFFIX;
+
+    // Direct-mapped by project id hash; a colliding project just replaces the entry
+    private static final int CURSOR_CACHE_SIZE = 1024;
+    private static final CachedDestination[] CURSOR_DESTINATIONS = new CachedDestination[CURSOR_CACHE_SIZE];
+
+    private BoardDestinations() {
+    }
+
+    // Node updates: /topic/project.{projectId}
+    public static String nodes(String projectId) {
+        return PROJECT_TOPIC_PREFIX + projectId;
+    }
+
+    // Cursor movements: /topic/project.{projectId}.cursors
+    public static String cursors(String projectId) {
+        return PROJECT_TOPIC_PREFIX + projectId + CURSORS_SUFFIX;
+    }
+
+    /**
+     * The cursors destination for the ASCII project id in
+     * {@code projectId[from, to)}, cached so relaying a cursor frame does not
+     * build the string again.
+     */
+    public static String cursors(byte[] projectId, int from, int to) {
+        int hash = 1;
+        for (int i = from; i < to; i++) {
+            hash = 31 * hash + projectId[i];
+        }
+        int slot = (hash ^ hash >>> 16) & (CURSOR_CACHE_SIZE - 1);
+        // Entries are immutable, so a racy read sees either a whole entry or null
+        CachedDestination cached = CURSOR_DESTINATIONS[slot];
+        if (cached != null && Arrays.equals(cached.projectId, 0, cached.projectId.length, projectId, from, to)) {
+            return cached.destination;
+        }
+        byte[] id = Arrays.copyOfRange(projectId, from, to);
+        String destination = cursors(new String(id, StandardCharsets.US_ASCII));
+        CURSOR_DESTINATIONS[slot] = new CachedDestination(id, destination);
+        return destination;
+    }
+
+    // Join/leave events: /topic/project.{projectId}.presence
+    public static String presence(String projectId) {
+        return PROJECT_TOPIC_PREFIX + projectId + PRESENCE_SUFFIX;
+    }
+
+    public static boolean isCursors(String destination) {
+        return destination != null && destination.startsWith(PROJECT_TOPIC_PREFIX)
+                && destination.endsWith(CURSORS_SUFFIX);
+    }
+
+    /**
+     * Extracts the project id from any board destination, or null if the
+     * destination is not a board topic.
+     */
+    public static String projectId(String destination) {
+        if (destination == null || !destination.startsWith(PROJECT_TOPIC_PREFIX)) {
+            return null;
+        }
+        int start = PROJECT_TOPIC_PREFIX.length();
+        int end = destination.indexOf('.', start);
+        String id = end < 0 ? destination.substring(start) : destination.substring(start, end);
+        return id.isEmpty() ? null : id;
+    }
+
+    /**
+     * The destination with its project id replaced by {@code {projectId}}, so
+     * board topics can be grouped, e.g. in metric tags. Other destinations are
+     * returned unchanged.
+     */
+    public static String pattern(String destination) {
+        String projectId = projectId(destination);
+        if (projectId == null) {
+            return destination;
+        }
+        // Counted on every message, so the common shapes skip building the string
+        int rest = PROJECT_TOPIC_PREFIX.length() + projectId.length();
+        if (rest == destination.length()) {
+            return PROJECT_PATTERN;
+        }
+        if (destination.endsWith(CURSORS_SUFFIX) && rest == destination.length() - CURSORS_SUFFIX.length()) {
+            return CURSORS_PATTERN;
+        }
+        if (destination.endsWith(PRESENCE_SUFFIX) && rest == destination.length() - PRESENCE_SUFFIX.length()) {
+            return PRESENCE_PATTERN;
+        }
+        return PROJECT_PATTERN + destination.substring(rest);
+    }
+
+    private record CachedDestination(byte[] projectId, String destination) {
+    }
+}
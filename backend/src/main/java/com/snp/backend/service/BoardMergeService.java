@@ -0,0 +1,681 @@
+package com.snp.backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.snp.backend.model.BoardOperation;
+import com.snp.backend.model.Project;
+import com.snp.backend.model.ws.NodeDelta;
+import com.snp.backend.model.ws.NodeMessage;
+import com.snp.backend.model.ws.TextPatch;
+import com.snp.backend.repository.ProjectRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Merges concurrent node edits on flowchart, mindmap and timeline boards.
+ *
+ * Each edit is applied to the project's {@link BoardState} and the relayed
+ * message carries the merged node (all fields, or a DELETE if the node is
+ * gone) stamped with the node's version, instead of the sender's raw data.
+ * Clients replace their copy of the node with what they receive, so whichever
+ * order frames arrive in, the last relay for a node is the converged state.
+ * Connection and poll messages pass through unchanged.
+ *
+ * {@link NodeDelta}s carry only the fields that changed. They are validated,
+ * applied to the same registers, and relayed with just the touched fields at
+ * their merged values; a malformed delta, or one for a node the board doesn't
+ * have, is rejected with IllegalArgumentException and nothing is relayed.
+ *
+ * Every applied edit is appended to the {@link BoardOperationLog}, which backs
+ * per-user undo/redo and replay. Board state lives in memory, is dropped after
+ * {@code board.merge.idle-ms} without edits, and is rebuilt from the log when
+ * the board is next used. Nodes saved with the project that the log doesn't
+ * know are added at stamp 0, below any logged write, so the first edit of a
+ * saved node has its previous values for undo. With {@code websocket.cluster.mode=mongo}, edits
+ * merged on other instances arrive through {@link #applyRemote} and are
+ * applied to the registers with the version they were relayed with. A tie
+ * with a local write of the same stamp may resolve differently than it did
+ * on the other instance, until either node is edited again.
+ */
+@Service
+public class BoardMergeService {
+
+    private static final Logger log = LoggerFactory.getLogger(BoardMergeService.class);
+
+    private static final String FLOWCHART = "flowchart";
+    private static final String MINDMAP = "mindmap";
+    private static final String TIMELINE = "timeline";
+
+    private static final String ACTION_FIELD = "action";
+
+    @Autowired
+    private BoardOperationLog operationLog;
+
+    @Autowired
+    private BoardPresenceService presenceService;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${board.merge.idle-ms:600000}")
+    private long idleMs;
+
+    @Value("${board.merge.max-clock-lead:100000}")
+    private long maxClockLead;
+
+    @Value("${board.delta.max-coordinate:1000000}")
+    private double maxCoordinate;
+
+    @Value("${board.delta.max-label-length:2000}")
+    private int maxLabelLength;
+
+    private final Map<String, BoardState> boards = new ConcurrentHashMap<>();
+    private final AtomicLong appliedDeltas = new AtomicLong();
+    private final AtomicLong rejectedDeltas = new AtomicLong();
+
+    /**
+     * Applies a node message and hands the message to relay to {@code relay}.
+     *
+     * The relay runs under the board lock so merged messages leave in the
+     * order they were applied.
+     */
+    public void merge(NodeMessage message, String defaultOrigin, Consumer<NodeMessage> relay) {
+        String tool = toolOf(message.getType());
+        if (tool == null || message.getProjectId() == null || message.getNodeId() == null) {
+            relay.accept(message);
+            return;
+        }
+
+        String action = actionOf(tool, message);
+        String origin = message.getOrigin() != null ? message.getOrigin() : defaultOrigin;
+        BoardOperation op = newOperation(message.getProjectId(), BoardOperation.Kind.EDIT,
+                presenceService.getUserId(defaultOrigin), origin, tool, message.getNodeId());
+        op.setSessionId(defaultOrigin);
+        if ("DELETE".equals(action)) {
+            op.setAction(BoardOperation.Action.DELETE);
+        } else {
+            Map<String, Object> fields = message.getData() != null
+                    ? new LinkedHashMap<>(message.getData())
+                    : new LinkedHashMap<>();
+            fields.remove(ACTION_FIELD);
+            op.setAction(BoardOperation.Action.PUT);
+            op.setFields(fields);
+        }
+        BoardState board = board(message.getProjectId());
+
+        board.lock();
+        try {
+            op.setStamp(board.stamp(message.getClock(), maxClockLead));
+            BoardState.NodeState node = record(board, op);
+            relay.accept(merged(tool, message, action, node));
+        } finally {
+            board.unlock();
+        }
+    }
+
+    /**
+     * Validates and applies a delta and hands what to relay to {@code relay}:
+     * the touched fields at their merged values, or a DELETE if the node has
+     * been deleted.
+     *
+     * @throws IllegalArgumentException if the delta is malformed or the node unknown
+     */
+    public void applyDelta(NodeDelta delta, String defaultOrigin, Consumer<Object> relay) {
+        try {
+            validate(delta);
+        } catch (IllegalArgumentException e) {
+            rejectedDeltas.incrementAndGet();
+            throw e;
+        }
+
+        String origin = delta.getOrigin() != null ? delta.getOrigin() : defaultOrigin;
+        String key = delta.getTool() + ":" + delta.getNodeId();
+        BoardState board = board(delta.getProjectId());
+
+        board.lock();
+        try {
+            BoardState.NodeState existing = board.find(key);
+            if (existing == null) {
+                // A delta would create a node with only the fields it touches
+                rejectedDeltas.incrementAndGet();
+                throw new IllegalArgumentException("Delta for unknown node " + key);
+            }
+            if (existing.isDeleted()) {
+                // Edit raced with a delete that won; tell the sender to drop the node
+                NodeMessage deleted = new NodeMessage(typeOf(delta.getTool()), delta.getProjectId(),
+                        delta.getNodeId(), null);
+                relay.accept(merged(delta.getTool(), deleted, "DELETE", existing));
+                return;
+            }
+
+            Map<String, Object> fields = new LinkedHashMap<>(8);
+            putIfSet(fields, "x", delta.getX());
+            putIfSet(fields, "y", delta.getY());
+            putIfSet(fields, "width", delta.getWidth());
+            putIfSet(fields, "height", delta.getHeight());
+            putIfSet(fields, "label", delta.getLabel());
+            if (delta.getText() != null) {
+                fields.put("label", splice(existing.value("label"), delta.getText()));
+            }
+
+            BoardOperation op = newOperation(delta.getProjectId(), BoardOperation.Kind.EDIT,
+                    presenceService.getUserId(defaultOrigin), origin, delta.getTool(), delta.getNodeId());
+            op.setSessionId(defaultOrigin);
+            op.setAction(BoardOperation.Action.PUT);
+            op.setFields(fields);
+            op.setStamp(board.stamp(delta.getClock(), maxClockLead));
+            BoardState.NodeState node = record(board, op);
+            appliedDeltas.incrementAndGet();
+
+            NodeDelta relayed = new NodeDelta();
+            relayed.setTool(delta.getTool());
+            relayed.setProjectId(delta.getProjectId());
+            relayed.setNodeId(delta.getNodeId());
+            if (fields.containsKey("x"))
+                relayed.setX(asDouble(node.value("x")));
+            if (fields.containsKey("y"))
+                relayed.setY(asDouble(node.value("y")));
+            if (fields.containsKey("width"))
+                relayed.setWidth(asDouble(node.value("width")));
+            if (fields.containsKey("height"))
+                relayed.setHeight(asDouble(node.value("height")));
+            if (fields.containsKey("label"))
+                relayed.setLabel(asString(node.value("label")));
+            relayed.setClock(node.version());
+            relayed.setOrigin(delta.getOrigin());
+            relay.accept(relayed);
+        } finally {
+            board.unlock();
+        }
+    }
+
+    /**
+     * Applies a merged node relayed by another instance to this instance's
+     * copy of the board, if it has one loaded; otherwise the board is
+     * restored from the shared log when next used. Not logged again: the
+     * instance that merged the edit has logged it.
+     */
+    public void applyRemote(NodeMessage message) {
+        String tool = toolOf(message.getType());
+        BoardState board = message.getProjectId() != null ? boards.get(message.getProjectId()) : null;
+        if (tool == null || board == null || message.getNodeId() == null || message.getClock() == null) {
+            return;
+        }
+        String key = tool + ":" + message.getNodeId();
+        board.lock();
+        try {
+            if ("DELETE".equals(actionOf(tool, message))) {
+                board.delete(key, message.getClock(), message.getOrigin());
+            } else if (message.getData() != null) {
+                Map<String, Object> fields = new LinkedHashMap<>(message.getData());
+                fields.remove(ACTION_FIELD);
+                board.put(key, fields, message.getClock(), message.getOrigin());
+            }
+            board.setClock(message.getClock());
+        } finally {
+            board.unlock();
+        }
+    }
+
+    public void applyRemote(NodeDelta delta) {
+        BoardState board = delta.getProjectId() != null ? boards.get(delta.getProjectId()) : null;
+        if (board == null || delta.getTool() == null || delta.getNodeId() == null || delta.getClock() == null) {
+            return;
+        }
+        Map<String, Object> fields = new LinkedHashMap<>(8);
+        putIfSet(fields, "x", delta.getX());
+        putIfSet(fields, "y", delta.getY());
+        putIfSet(fields, "width", delta.getWidth());
+        putIfSet(fields, "height", delta.getHeight());
+        putIfSet(fields, "label", delta.getLabel());
+        board.lock();
+        try {
+            board.put(delta.getTool() + ":" + delta.getNodeId(), fields, delta.getClock(), delta.getOrigin());
+            board.setClock(delta.getClock());
+        } finally {
+            board.unlock();
+        }
+    }
+
+    /**
+     * The board's Lamport clock, for a client joining the board to continue
+     * from instead of starting over at zero.
+     */
+    public long getClock(String projectId) {
+        BoardState board = board(projectId);
+        board.lock();
+        try {
+            return board.getClock();
+        } finally {
+            board.unlock();
+        }
+    }
+
+    /**
+     * Reverts the user's latest edit (or redo) that hasn't been undone and
+     * relays the resulting node.
+     *
+     * @return false if there is nothing to undo
+     */
+    public boolean undo(String projectId, String userId, Consumer<NodeMessage> relay) {
+        if (!operationLog.isEnabled()) {
+            return false;
+        }
+        BoardState board = board(projectId);
+        board.lock();
+        try {
+            BoardOperation target = operationLog.findUndoable(projectId, userId);
+            if (target == null) {
+                return false;
+            }
+            BoardOperation inverse = newOperation(projectId, BoardOperation.Kind.UNDO, userId, userId,
+                    target.getTool(), target.getNodeId());
+            if (target.getAction() == BoardOperation.Action.PUT && !target.isPreviousVisible()) {
+                // The edit created the node
+                inverse.setAction(BoardOperation.Action.DELETE);
+            } else {
+                inverse.setAction(BoardOperation.Action.PUT);
+                inverse.setFields(target.getPrevious() != null
+                        ? new LinkedHashMap<>(target.getPrevious())
+                        : new LinkedHashMap<>());
+            }
+            inverse.setTargetSeq(target.getSeq());
+            inverse.setStamp(board.stamp(null, maxClockLead));
+
+            BoardState.NodeState node = record(board, inverse);
+            operationLog.markUndone(target, true);
+            relay.accept(nodeMessage(projectId, target.getTool(), target.getNodeId(), node));
+            return true;
+        } finally {
+            board.unlock();
+        }
+    }
+
+    /**
+     * Re-applies the edit reverted by the user's latest undo, as long as the
+     * user hasn't made a new edit since.
+     *
+     * @return false if there is nothing to redo
+     */
+    public boolean redo(String projectId, String userId, Consumer<NodeMessage> relay) {
+        if (!operationLog.isEnabled()) {
+            return false;
+        }
+        BoardState board = board(projectId);
+        board.lock();
+        try {
+            BoardOperation undo = operationLog.findRedoable(projectId, userId);
+            BoardOperation original = undo != null ? operationLog.findOperation(projectId, undo.getTargetSeq())
+                    : null;
+            if (original == null) {
+                return false;
+            }
+            BoardOperation op = newOperation(projectId, BoardOperation.Kind.REDO, userId, userId,
+                    original.getTool(), original.getNodeId());
+            op.setAction(original.getAction());
+            if (original.getFields() != null) {
+                op.setFields(new LinkedHashMap<>(original.getFields()));
+            }
+            op.setTargetSeq(original.getSeq());
+            op.setStamp(board.stamp(null, maxClockLead));
+
+            BoardState.NodeState node = record(board, op);
+            operationLog.markRedone(undo);
+            relay.accept(nodeMessage(projectId, original.getTool(), original.getNodeId(), node));
+            return true;
+        } finally {
+            board.unlock();
+        }
+    }
+
+    /**
+     * The board's visible nodes right after operation {@code seq}.
+     *
+     * @throws IllegalArgumentException if that point has been compacted away
+     */
+    public Map<String, Object> replay(String projectId, long seq) {
+        BoardState replayed = operationLog.replay(projectId, seq);
+        List<Map<String, Object>> nodes = new ArrayList<>();
+        replayed.getNodes().forEach((key, node) -> {
+            if (node.isVisible()) {
+                int separator = key.indexOf(':');
+                Map<String, Object> entry = new LinkedHashMap<>();
+                entry.put("tool", key.substring(0, separator));
+                entry.put("nodeId", key.substring(separator + 1));
+                entry.put("version", node.version());
+                entry.put("fields", node.values());
+                nodes.add(entry);
+            }
+        });
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("seq", replayed.getSeq());
+        result.put("nodes", nodes);
+        return result;
+    }
+
+    /**
+     * The project's board, restored from the log on first use. Loading runs
+     * outside the map so Mongo reads don't hold other boards' bins; if two
+     * threads load at once, the first board installed wins. A board whose
+     * saved nodes couldn't be read is kept but retries the read on each use.
+     */
+    private BoardState board(String projectId) {
+        BoardState board = boards.get(projectId);
+        if (board == null) {
+            BoardState restored = operationLog.restore(projectId);
+            board = boards.putIfAbsent(projectId, restored);
+            if (board == null) {
+                board = restored;
+            }
+        }
+        if (!board.isSeeded()) {
+            seed(projectId, board);
+        }
+        return board;
+    }
+
+    private void seed(String projectId, BoardState board) {
+        Project project;
+        try {
+            project = projectRepository.findById(projectId).orElse(null);
+        } catch (Exception e) {
+            log.warn("Could not read saved nodes of project {}: {}", projectId, e.getMessage());
+            return;
+        }
+        board.lock();
+        try {
+            if (board.isSeeded()) {
+                return;
+            }
+            if (project != null) {
+                seed(board, FLOWCHART, project.getFlowchartData(), "nodes");
+                seed(board, MINDMAP, project.getMindmapData(), "nodes");
+                seed(board, TIMELINE, project.getTimelineData(), "milestones", "timeline_milestones");
+            }
+            board.markSeeded();
+        } finally {
+            board.unlock();
+        }
+    }
+
+    /**
+     * Adds the nodes of a saved tool blob that the board doesn't know, stamped 0
+     * so every logged write wins. A blob is a node list, or an object holding it
+     * under one of {@code listFields}; anything else is skipped.
+     */
+    private void seed(BoardState board, String tool, String data, String... listFields) {
+        if (data == null || data.isBlank()) {
+            return;
+        }
+        Object parsed;
+        try {
+            parsed = objectMapper.readValue(data, Object.class);
+        } catch (JsonProcessingException e) {
+            log.debug("Unreadable {} data: {}", tool, e.getMessage());
+            return;
+        }
+        Object nodes = parsed;
+        if (parsed instanceof Map<?, ?> blob) {
+            nodes = null;
+            for (String listField : listFields) {
+                if (blob.get(listField) instanceof List<?>) {
+                    nodes = blob.get(listField);
+                    break;
+                }
+            }
+        }
+        if (!(nodes instanceof List<?> list)) {
+            return;
+        }
+        for (Object node : list) {
+            if (node instanceof Map<?, ?> saved && saved.get("id") != null) {
+                String key = tool + ":" + saved.get("id");
+                if (board.find(key) == null) {
+                    Map<String, Object> fields = new LinkedHashMap<>();
+                    saved.forEach((name, value) -> fields.put(String.valueOf(name), value));
+                    board.load(key, fields, 0);
+                }
+            }
+        }
+    }
+
+    private BoardOperation newOperation(String projectId, BoardOperation.Kind kind, String userId, String origin,
+            String tool, String nodeId) {
+        BoardOperation op = new BoardOperation();
+        op.setProjectId(projectId);
+        op.setKind(kind);
+        op.setUserId(userId);
+        op.setOrigin(origin);
+        op.setTool(tool);
+        op.setNodeId(nodeId);
+        return op;
+    }
+
+    // Applies an operation to the board and appends it to the log; the caller holds the board lock
+    private BoardState.NodeState record(BoardState board, BoardOperation op) {
+        String key = op.getTool() + ":" + op.getNodeId();
+        BoardState.NodeState existing = board.find(key);
+        op.setPreviousVisible(existing != null && existing.isVisible());
+
+        Map<String, Object> previous = new LinkedHashMap<>();
+        if (existing != null) {
+            if (op.getAction() == BoardOperation.Action.DELETE) {
+                previous.putAll(existing.values());
+            } else {
+                for (String field : op.getFields().keySet()) {
+                    previous.put(field, existing.value(field));
+                }
+            }
+        }
+        op.setPrevious(previous);
+
+        BoardState.NodeState node = op.getAction() == BoardOperation.Action.DELETE
+                ? board.delete(key, op.getStamp(), op.getOrigin())
+                : board.put(key, op.getFields(), op.getStamp(), op.getOrigin());
+        op.setSeq(operationLog.nextSeq(op.getProjectId(), board));
+        op.setCreatedAt(Instant.now());
+        operationLog.append(op, board);
+        return node;
+    }
+
+    private NodeMessage nodeMessage(String projectId, String tool, String nodeId, BoardState.NodeState node) {
+        NodeMessage base = new NodeMessage(typeOf(tool), projectId, nodeId, null);
+        return merged(tool, base, "UPDATE", node);
+    }
+
+    private void validate(NodeDelta delta) {
+        if (isBlank(delta.getProjectId()) || isBlank(delta.getNodeId())) {
+            throw new IllegalArgumentException("Delta needs projectId and nodeId");
+        }
+        if (!FLOWCHART.equals(delta.getTool()) && !MINDMAP.equals(delta.getTool())
+                && !TIMELINE.equals(delta.getTool())) {
+            throw new IllegalArgumentException("Unknown board tool: " + delta.getTool());
+        }
+        if (delta.getX() == null && delta.getY() == null && delta.getWidth() == null
+                && delta.getHeight() == null && delta.getLabel() == null && delta.getText() == null) {
+            throw new IllegalArgumentException("Delta changes nothing");
+        }
+        if (delta.getLabel() != null && delta.getText() != null) {
+            throw new IllegalArgumentException("Delta sets both label and text patch");
+        }
+        checkCoordinate("x", delta.getX());
+        checkCoordinate("y", delta.getY());
+        checkSize("width", delta.getWidth());
+        checkSize("height", delta.getHeight());
+        if (delta.getLabel() != null && delta.getLabel().length() > maxLabelLength) {
+            throw new IllegalArgumentException("Label longer than " + maxLabelLength);
+        }
+        TextPatch text = delta.getText();
+        if (text != null && (text.getAt() < 0 || text.getDelete() < 0 || text.getInsert() == null)) {
+            throw new IllegalArgumentException("Malformed text patch");
+        }
+    }
+
+    private void checkCoordinate(String name, Double value) {
+        if (value != null && (!Double.isFinite(value) || Math.abs(value) > maxCoordinate)) {
+            throw new IllegalArgumentException("Invalid " + name + ": " + value);
+        }
+    }
+
+    private void checkSize(String name, Double value) {
+        if (value != null && (!Double.isFinite(value) || value <= 0 || value > maxCoordinate)) {
+            throw new IllegalArgumentException("Invalid " + name + ": " + value);
+        }
+    }
+
+    // Applies a text patch to the merged label, which must be known to this board
+    private String splice(Object current, TextPatch patch) {
+        if (current == null) {
+            rejectedDeltas.incrementAndGet();
+            throw new IllegalArgumentException("Text patch on a node without a known label");
+        }
+        String label = current.toString();
+        // Compared without adding, which could overflow
+        if (patch.getAt() > label.length() || patch.getDelete() > label.length() - patch.getAt()) {
+            rejectedDeltas.incrementAndGet();
+            throw new IllegalArgumentException("Text patch out of range");
+        }
+        int end = patch.getAt() + patch.getDelete();
+        String result = label.substring(0, patch.getAt()) + patch.getInsert() + label.substring(end);
+        if (result.length() > maxLabelLength) {
+            rejectedDeltas.incrementAndGet();
+            throw new IllegalArgumentException("Label longer than " + maxLabelLength);
+        }
+        return result;
+    }
+
+    private static void putIfSet(Map<String, Object> fields, String name, Object value) {
+        if (value != null) {
+            fields.put(name, value);
+        }
+    }
+
+    // Full NodeMessages may have written the field as any JSON number
+    private static Double asDouble(Object value) {
+        return value instanceof Number number ? number.doubleValue() : null;
+    }
+
+    private static String asString(Object value) {
+        return value != null ? value.toString() : null;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private NodeMessage merged(String tool, NodeMessage message, String action, BoardState.NodeState node) {
+        boolean visible = node.isVisible();
+        String relayedAction = visible ? ("DELETE".equals(action) ? "UPDATE" : action) : "DELETE";
+
+        Map<String, Object> data = visible ? node.values() : new LinkedHashMap<>();
+        String type;
+        if (FLOWCHART.equals(tool)) {
+            type = relayedAction;
+        } else {
+            type = message.getType();
+            data.put(ACTION_FIELD, relayedAction);
+        }
+
+        NodeMessage relayed = new NodeMessage(type, message.getProjectId(), message.getNodeId(), data);
+        if (!FLOWCHART.equals(tool)) {
+            relayed.setAction(relayedAction);
+        }
+        relayed.setClock(node.version());
+        relayed.setOrigin(message.getOrigin());
+        return relayed;
+    }
+
+    private static String toolOf(String type) {
+        if (type == null) {
+            return null;
+        }
+        switch (type) {
+            case "ADD":
+            case "UPDATE":
+            case "DELETE":
+                return FLOWCHART;
+            case "MINDMAP_UPDATE":
+                return MINDMAP;
+            case "TIMELINE_UPDATE":
+                return TIMELINE;
+            default:
+                return null;
+        }
+    }
+
+    private static String typeOf(String tool) {
+        switch (tool) {
+            case MINDMAP:
+                return "MINDMAP_UPDATE";
+            case TIMELINE:
+                return "TIMELINE_UPDATE";
+            default:
+                return "DELETE";
+        }
+    }
+
+    private static String actionOf(String tool, NodeMessage message) {
+        if (FLOWCHART.equals(tool)) {
+            return message.getType();
+        }
+        if (message.getAction() != null) {
+            return message.getAction();
+        }
+        Object action = message.getData() != null ? message.getData().get(ACTION_FIELD) : null;
+        return action != null ? action.toString() : "UPDATE";
+    }
+
+    @Scheduled(fixedDelayString = "${board.merge.sweep-interval-ms:60000}")
+    public void evictIdleBoards() {
+        long cutoff = System.currentTimeMillis() - idleMs;
+        boards.entrySet().removeIf(entry -> entry.getValue().getLastTouched() < cutoff);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("boards", getBoardCount());
+        stats.put("nodes", getNodeCount());
+        stats.put("appliedDeltas", getAppliedDeltas());
+        stats.put("rejectedDeltas", getRejectedDeltas());
+        return stats;
+    }
+
+    public int getBoardCount() {
+        return boards.size();
+    }
+
+    /**
+     * Nodes across loaded boards, read without taking any board's lock.
+     */
+    public int getNodeCount() {
+        int nodes = 0;
+        for (BoardState board : boards.values()) {
+            nodes += board.getNodeCount();
+        }
+        return nodes;
+    }
+
+    public long getAppliedDeltas() {
+        return appliedDeltas.get();
+    }
+
+    public long getRejectedDeltas() {
+        return rejectedDeltas.get();
+    }
+}
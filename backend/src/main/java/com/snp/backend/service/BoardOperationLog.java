@@ -0,0 +1,397 @@
+package com.snp.backend.service;
+
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
+import com.mongodb.client.model.ReturnDocument;
+import com.snp.backend.model.BoardOperation;
+import com.snp.backend.model.BoardSnapshot;
+import com.snp.backend.repository.BoardOperationRepository;
+import com.snp.backend.repository.BoardSnapshotRepository;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Append-only operation log of board edits, stored in board_ops.
+ *
+ * Operations are queued by the merge engine while it holds the board lock and
+ * written in batches every {@code board.oplog.flush-interval-ms}, so drags
+ * don't wait on Mongo. Every {@code board.oplog.snapshot-every} operations a
+ * snapshot of the board is written to board_snapshots; once more than
+ * {@code board.oplog.retained-snapshots} exist, the oldest are dropped along
+ * with the operations they cover, which bounds the log while keeping a window
+ * for replay. A board is recovered from its latest snapshot plus the
+ * operations after it.
+ *
+ * Sequence numbers are handed out from blocks of {@code board.oplog.seq-block}
+ * reserved per project in board_seq, so instances sharing the log never use
+ * the same number; numbers left in a block an instance stops using are gaps.
+ * Operations are written unordered, and one that still collides (numbered
+ * locally while board_seq was unreachable) is dropped on its own.
+ *
+ * An operation from a session whose user isn't known yet is logged without a
+ * user and attributed once the session's user is bound, so undo finds it.
+ *
+ * Operations still queued when the process dies are lost.
+ */
+@Service
+public class BoardOperationLog {
+
+    private static final Logger log = LoggerFactory.getLogger(BoardOperationLog.class);
+
+    private static final String SEQ_COLLECTION = "board_seq";
+
+    // Another instance may have logged operations up to this long before its snapshot
+    // without the snapshot including them; they are re-applied on restore
+    private static final Duration SNAPSHOT_OVERLAP = Duration.ofMinutes(1);
+
+    @Autowired
+    private BoardOperationRepository operationRepository;
+
+    @Autowired
+    private BoardSnapshotRepository snapshotRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Value("${board.oplog.enabled:true}")
+    private boolean enabled;
+
+    @Value("${board.oplog.snapshot-every:500}")
+    private int snapshotEvery;
+
+    @Value("${board.oplog.retained-snapshots:5}")
+    private int retainedSnapshots;
+
+    @Value("${board.oplog.seq-block:100}")
+    private int seqBlock;
+
+    private final Queue<BoardOperation> pendingOperations = new ConcurrentLinkedQueue<>();
+    private final Queue<BoardSnapshot> pendingSnapshots = new ConcurrentLinkedQueue<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    // sessionId -> projects with operations logged before the session's user was known
+    private final Map<String, Set<String>> unattributed = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureIndexes() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            IndexOperations opIndexes = mongoTemplate.indexOps(BoardOperation.class);
+            opIndexes.ensureIndex(new Index().on("projectId", Sort.Direction.ASC).on("seq", Sort.Direction.ASC)
+                    .unique());
+            // Undo/redo look up a user's latest operations of a kind
+            opIndexes.ensureIndex(new Index().on("projectId", Sort.Direction.ASC).on("userId", Sort.Direction.ASC)
+                    .on("kind", Sort.Direction.ASC).on("seq", Sort.Direction.DESC));
+            mongoTemplate.indexOps(BoardSnapshot.class)
+                    .ensureIndex(new Index().on("projectId", Sort.Direction.ASC).on("seq", Sort.Direction.DESC));
+        } catch (Exception e) {
+            log.warn("Could not create board log indexes: {}", e.getMessage());
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * The sequence number for the board's next operation; call with the board
+     * lock held. Reserves a new block when the board's is used up. If board_seq
+     * can't be reached, the board numbers a block on its own.
+     */
+    long nextSeq(String projectId, BoardState board) {
+        if (!board.hasReservedSeq()) {
+            long limit = board.getSeq() + seqBlock;
+            if (enabled) {
+                try {
+                    limit = reserveSeq(projectId, board.getSeq());
+                } catch (Exception e) {
+                    log.warn("Could not reserve board sequence numbers for {}: {}", projectId, e.getMessage());
+                }
+            }
+            board.reserveSeq(limit - seqBlock, limit);
+        }
+        return board.nextSeq();
+    }
+
+    // Moves the project's counter past both its last reservation and what this board has seen
+    private long reserveSeq(String projectId, long seen) {
+        Document next = new Document("$add", List.of(
+                new Document("$max", List.of(new Document("$ifNull", List.of("$next", 0L)), seen)),
+                (long) seqBlock));
+        Document counter = mongoTemplate.getCollection(SEQ_COLLECTION).findOneAndUpdate(
+                Filters.eq("_id", projectId),
+                List.of(new Document("$set", new Document("next", next))),
+                new FindOneAndUpdateOptions().upsert(true).returnDocument(ReturnDocument.AFTER));
+        return counter.get("next", Number.class).longValue();
+    }
+
+    /**
+     * Queues an operation; call with the board lock held so the queue stays
+     * in sequence order. Takes a snapshot when the board reaches the interval.
+     */
+    void append(BoardOperation op, BoardState board) {
+        if (!enabled) {
+            return;
+        }
+        pendingOperations.add(op);
+        if (op.getUserId() == null && op.getSessionId() != null) {
+            unattributed.computeIfAbsent(op.getSessionId(), id -> ConcurrentHashMap.newKeySet())
+                    .add(op.getProjectId());
+        }
+        if (board.snapshotDue(snapshotEvery)) {
+            pendingSnapshots.add(snapshot(op.getProjectId(), board));
+        }
+    }
+
+    /**
+     * Attributes the operations a session logged before its user was known
+     * to that user.
+     */
+    public void assignUser(String sessionId, String userId) {
+        Set<String> projectIds = unattributed.remove(sessionId);
+        if (!enabled || projectIds == null) {
+            return;
+        }
+        try {
+            flush();
+            for (String projectId : projectIds) {
+                mongoTemplate.updateMulti(new Query(Criteria.where("projectId").is(projectId)
+                        .and("sessionId").is(sessionId).and("userId").is(null)),
+                        new Update().set("userId", userId), BoardOperation.class);
+            }
+        } catch (Exception e) {
+            log.warn("Could not attribute board operations of session {}: {}", sessionId, e.getMessage());
+        }
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        unattributed.remove(event.getSessionId());
+    }
+
+    @Scheduled(fixedDelayString = "${board.oplog.flush-interval-ms:200}")
+    public void flush() {
+        if (!enabled) {
+            return;
+        }
+        // Not a monitor: callers may be virtual threads and this blocks on Mongo
+        flushLock.lock();
+        try {
+            flushPending();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void flushPending() {
+        List<BoardOperation> batch = new ArrayList<>();
+        BoardOperation op;
+        while ((op = pendingOperations.poll()) != null) {
+            batch.add(op);
+        }
+        if (!batch.isEmpty()) {
+            try {
+                // Unordered, so one duplicate sequence number doesn't take the rest of the batch with it
+                mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, BoardOperation.class)
+                        .insert(batch)
+                        .execute();
+            } catch (BulkOperationException e) {
+                log.warn("Dropped {} of {} board operations: {}", e.getErrors().size(), batch.size(),
+                        e.getErrors().get(0).getMessage());
+            } catch (Exception e) {
+                log.error("Failed to write {} board operations", batch.size(), e);
+            }
+        }
+
+        BoardSnapshot snapshot;
+        while ((snapshot = pendingSnapshots.poll()) != null) {
+            try {
+                snapshotRepository.insert(snapshot);
+                compact(snapshot.getProjectId());
+            } catch (Exception e) {
+                log.error("Failed to write board snapshot for {}", snapshot.getProjectId(), e);
+            }
+        }
+    }
+
+    // Keeps the newest snapshots (at least the latest, which restore starts from) and the
+    // operations after the oldest of them
+    private void compact(String projectId) {
+        int retained = Math.max(1, retainedSnapshots);
+        List<BoardSnapshot> snapshots = snapshotRepository.findByProjectIdOrderBySeqDesc(projectId);
+        if (snapshots.size() <= retained) {
+            return;
+        }
+        BoardSnapshot oldestKept = snapshots.get(retained - 1);
+        snapshotRepository.deleteAll(snapshots.subList(retained, snapshots.size()));
+        operationRepository.deleteByProjectIdAndSeqLessThanEqual(projectId, oldestKept.getSeq());
+    }
+
+    /**
+     * Rebuilds a board from its latest snapshot and the operations after it.
+     * Returns an empty board if the log is disabled or unreadable.
+     */
+    BoardState restore(String projectId) {
+        BoardState board = new BoardState();
+        if (!enabled) {
+            return board;
+        }
+        try {
+            flush();
+            Criteria after = Criteria.where("seq").gt(0);
+            BoardSnapshot snapshot = snapshotRepository.findTopByProjectIdOrderBySeqDesc(projectId).orElse(null);
+            if (snapshot != null) {
+                load(board, snapshot);
+                after = Criteria.where("seq").gt(snapshot.getSeq());
+                if (snapshot.getCreatedAt() != null) {
+                    after = new Criteria().orOperator(after,
+                            Criteria.where("createdAt").gte(snapshot.getCreatedAt().minus(SNAPSHOT_OVERLAP)));
+                }
+            }
+            // Re-applying an operation the snapshot already holds changes nothing
+            Query query = new Query(Criteria.where("projectId").is(projectId).andOperator(after))
+                    .with(Sort.by(Sort.Direction.ASC, "seq"));
+            for (BoardOperation op : mongoTemplate.find(query, BoardOperation.class)) {
+                board.apply(op);
+            }
+        } catch (Exception e) {
+            log.error("Could not restore board {} from its log", projectId, e);
+            return new BoardState();
+        }
+        return board;
+    }
+
+    /**
+     * The board as it was right after operation {@code seq}.
+     *
+     * @throws IllegalArgumentException if that point has been compacted away
+     */
+    public BoardState replay(String projectId, long seq) {
+        flush();
+        BoardState board = new BoardState();
+        long from = 0;
+        BoardSnapshot snapshot = snapshotRepository
+                .findTopByProjectIdAndSeqLessThanEqualOrderBySeqDesc(projectId, seq).orElse(null);
+        if (snapshot != null) {
+            load(board, snapshot);
+            from = snapshot.getSeq();
+        } else {
+            BoardOperation first = operationRepository.findTopByProjectIdOrderBySeqAsc(projectId).orElse(null);
+            if (first != null && first.getSeq() > 1) {
+                throw new IllegalArgumentException("History before operation " + first.getSeq()
+                        + " has been compacted");
+            }
+        }
+        for (BoardOperation op : operationRepository.findByProjectIdAndSeqBetweenOrderBySeqAsc(projectId, from,
+                seq + 1)) {
+            if (op.getSeq() <= seq) {
+                board.apply(op);
+            }
+        }
+        return board;
+    }
+
+    public List<BoardOperation> getOperations(String projectId, long after, int limit) {
+        flush();
+        Query query = new Query(Criteria.where("projectId").is(projectId).and("seq").gt(after))
+                .with(Sort.by(Sort.Direction.ASC, "seq"))
+                .limit(limit);
+        return mongoTemplate.find(query, BoardOperation.class);
+    }
+
+    // --- Undo/redo lookups (the caller holds the board lock) ---
+
+    BoardOperation findUndoable(String projectId, String userId) {
+        flush();
+        return operationRepository.findTopByProjectIdAndUserIdAndKindInAndUndoneFalseOrderBySeqDesc(projectId,
+                userId, List.of(BoardOperation.Kind.EDIT, BoardOperation.Kind.REDO)).orElse(null);
+    }
+
+    /**
+     * The user's latest undo not yet redone, unless they have edited since.
+     */
+    BoardOperation findRedoable(String projectId, String userId) {
+        flush();
+        long lastEdit = operationRepository
+                .findTopByProjectIdAndUserIdAndKindOrderBySeqDesc(projectId, userId, BoardOperation.Kind.EDIT)
+                .map(BoardOperation::getSeq)
+                .orElse(0L);
+        return operationRepository.findTopByProjectIdAndUserIdAndKindAndRedoneFalseAndSeqGreaterThanOrderBySeqDesc(
+                projectId, userId, BoardOperation.Kind.UNDO, lastEdit).orElse(null);
+    }
+
+    BoardOperation findOperation(String projectId, long seq) {
+        return operationRepository.findByProjectIdAndSeq(projectId, seq).orElse(null);
+    }
+
+    void markUndone(BoardOperation op, boolean undone) {
+        mark(op, "undone", undone);
+    }
+
+    void markRedone(BoardOperation op) {
+        mark(op, "redone", true);
+    }
+
+    private void mark(BoardOperation op, String flag, boolean value) {
+        mongoTemplate.updateFirst(
+                new Query(Criteria.where("projectId").is(op.getProjectId()).and("seq").is(op.getSeq())),
+                new Update().set(flag, value), BoardOperation.class);
+    }
+
+    private BoardSnapshot snapshot(String projectId, BoardState board) {
+        List<BoardSnapshot.Node> nodes = new ArrayList<>();
+        board.getNodes().forEach((key, node) -> {
+            if (node.isVisible()) {
+                nodes.add(new BoardSnapshot.Node(key, node.version(), new LinkedHashMap<>(node.values())));
+            }
+        });
+        BoardSnapshot snapshot = new BoardSnapshot();
+        snapshot.setProjectId(projectId);
+        snapshot.setSeq(board.getSeq());
+        snapshot.setClock(board.getClock());
+        snapshot.setNodes(nodes);
+        snapshot.setCreatedAt(Instant.now());
+        return snapshot;
+    }
+
+    private static void load(BoardState board, BoardSnapshot snapshot) {
+        if (snapshot.getNodes() != null) {
+            for (BoardSnapshot.Node node : snapshot.getNodes()) {
+                Map<String, Object> fields = node.getFields() != null ? node.getFields() : Map.of();
+                board.load(node.getKey(), fields, node.getVersion());
+            }
+        }
+        board.setClock(snapshot.getClock());
+        board.setSeq(snapshot.getSeq());
+    }
+}
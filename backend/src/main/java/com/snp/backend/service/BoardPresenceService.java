@@ -0,0 +1,283 @@
+package com.snp.backend.service;
+
+import com.snp.backend.model.ws.PresenceMessage;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.messaging.SessionConnectEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks who is on each board.
+ *
+ * A STOMP session joins a project when it subscribes to any of the project's
+ * topics and leaves on unsubscribe, disconnect, or when no frame (including
+ * heartbeats) has arrived for {@code presence.timeout-ms}; a timed-out session
+ * that sends another frame joins its boards again. The user id comes
+ * from a {@code userId} CONNECT header or, for older clients, from the first
+ * cursor message of the session. JOIN/LEAVE events for a user are published to
+ * /topic/project.{id}.presence when their first session joins and their last
+ * session leaves.
+ *
+ * Presence is per node: with several instances, each node reports the sessions
+ * connected to it.
+ */
+@Service
+public class BoardPresenceService implements ChannelInterceptor {
+
+    // Resolved lazily: the broadcaster depends on the broker this service is registered with
+    @Lazy
+    @Autowired
+    private BoardBroadcaster broadcaster;
+
+    @Autowired
+    private BoardOperationLog operationLog;
+
+    @Value("${presence.timeout-ms:30000}")
+    private long timeoutMs;
+
+    // projectId -> sessionId -> participant
+    private final Map<String, Map<String, Participant>> projects = new ConcurrentHashMap<>();
+    private final Map<String, SessionPresence> sessions = new ConcurrentHashMap<>();
+
+    // --- Inbound frames (including heartbeats) keep a session alive ---
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+        if (sessionId != null) {
+            SessionPresence session = sessions.get(sessionId);
+            if (session != null) {
+                session.lastSeen = System.currentTimeMillis();
+                if (session.expired) {
+                    revive(sessionId, session);
+                }
+            }
+        }
+        return message;
+    }
+
+    // --- Session lifecycle ---
+
+    @EventListener
+    public void onConnect(SessionConnectEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        SessionPresence session = new SessionPresence();
+        session.userId = accessor.getFirstNativeHeader("userId");
+        sessions.put(accessor.getSessionId(), session);
+    }
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        String projectId = BoardDestinations.projectId(accessor.getDestination());
+        SessionPresence session = sessions.get(accessor.getSessionId());
+        if (projectId == null || session == null) {
+            return;
+        }
+        session.subscriptions.put(accessor.getSubscriptionId(), projectId);
+        join(accessor.getSessionId(), session, projectId);
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        SessionPresence session = sessions.get(accessor.getSessionId());
+        if (session == null) {
+            return;
+        }
+        String projectId = session.subscriptions.remove(accessor.getSubscriptionId());
+        if (projectId != null && !session.subscriptions.containsValue(projectId)) {
+            leave(accessor.getSessionId(), session, projectId);
+        }
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        removeSession(event.getSessionId());
+    }
+
+    /**
+     * Associates a user with a session that connected without a userId header,
+     * announcing the user on every board the session has already joined and
+     * attributing the board edits it has made so far.
+     */
+    public void bindUser(String sessionId, String userId) {
+        SessionPresence session = sessionId != null ? sessions.get(sessionId) : null;
+        if (session == null || userId == null || userId.equals(session.userId)) {
+            return;
+        }
+        if (session.userId != null) {
+            return; // A session belongs to one user
+        }
+        session.userId = userId;
+        operationLog.assignUser(sessionId, userId);
+        for (String projectId : Set.copyOf(session.subscriptions.values())) {
+            Map<String, Participant> participants = projects.get(projectId);
+            Participant participant = participants != null ? participants.get(sessionId) : null;
+            if (participant != null) {
+                participant.userId = userId;
+                if (countSessions(participants.values(), userId) == 1) {
+                    publish("JOIN", projectId, userId, participants.values());
+                }
+            }
+        }
+    }
+
+    /**
+     * The user bound to a session, or null if unknown.
+     */
+    public String getUserId(String sessionId) {
+        SessionPresence session = sessionId != null ? sessions.get(sessionId) : null;
+        return session != null ? session.userId : null;
+    }
+
+    private void join(String sessionId, SessionPresence session, String projectId) {
+        Map<String, Participant> participants = projects.computeIfAbsent(projectId, id -> new ConcurrentHashMap<>());
+        Participant participant = new Participant(session.userId);
+        if (participants.putIfAbsent(sessionId, participant) != null) {
+            return; // Already joined through another topic of the same project
+        }
+        if (session.userId != null && countSessions(participants.values(), session.userId) == 1) {
+            publish("JOIN", projectId, session.userId, participants.values());
+        }
+    }
+
+    private void leave(String sessionId, SessionPresence session, String projectId) {
+        Map<String, Participant> participants = projects.get(projectId);
+        if (participants == null || participants.remove(sessionId) == null) {
+            return;
+        }
+        if (participants.isEmpty()) {
+            projects.remove(projectId, participants);
+        }
+        if (session.userId != null && countSessions(participants.values(), session.userId) == 0) {
+            publish("LEAVE", projectId, session.userId, participants.values());
+        }
+    }
+
+    private void removeSession(String sessionId) {
+        SessionPresence session = sessions.remove(sessionId);
+        if (session == null) {
+            return;
+        }
+        for (String projectId : Set.copyOf(session.subscriptions.values())) {
+            leave(sessionId, session, projectId);
+        }
+    }
+
+    /**
+     * Sessions that stopped sending frames, e.g. a closed tab whose socket never
+     * closed cleanly, leave their boards. The session and its subscriptions are
+     * kept until it disconnects, so a frame arriving later rejoins them.
+     */
+    @Scheduled(fixedDelayString = "${presence.sweep-interval-ms:5000}")
+    public void expireStaleSessions() {
+        long cutoff = System.currentTimeMillis() - timeoutMs;
+        sessions.forEach((sessionId, session) -> {
+            if (session.lastSeen < cutoff) {
+                synchronized (session) {
+                    if (session.expired || session.lastSeen >= cutoff) {
+                        return;
+                    }
+                    session.expired = true;
+                    for (String projectId : Set.copyOf(session.subscriptions.values())) {
+                        leave(sessionId, session, projectId);
+                    }
+                }
+            }
+        });
+    }
+
+    private void revive(String sessionId, SessionPresence session) {
+        synchronized (session) {
+            if (!session.expired) {
+                return;
+            }
+            session.expired = false;
+            for (String projectId : Set.copyOf(session.subscriptions.values())) {
+                join(sessionId, session, projectId);
+            }
+        }
+    }
+
+    // --- Snapshot ---
+
+    /**
+     * Users currently on the board, with their session count and join time.
+     */
+    public List<Map<String, Object>> getParticipants(String projectId) {
+        Map<String, Participant> participants = projects.get(projectId);
+        Map<String, Map<String, Object>> byUser = new LinkedHashMap<>();
+        if (participants != null) {
+            for (Participant participant : participants.values()) {
+                if (participant.userId == null) {
+                    continue;
+                }
+                Map<String, Object> entry = byUser.computeIfAbsent(participant.userId, userId -> {
+                    Map<String, Object> created = new LinkedHashMap<>();
+                    created.put("userId", userId);
+                    created.put("sessions", 0);
+                    created.put("since", participant.joinedAt);
+                    return created;
+                });
+                entry.put("sessions", (Integer) entry.get("sessions") + 1);
+                if (participant.joinedAt.isBefore((Instant) entry.get("since"))) {
+                    entry.put("since", participant.joinedAt);
+                }
+            }
+        }
+        return new ArrayList<>(byUser.values());
+    }
+
+    private void publish(String type, String projectId, String userId, Collection<Participant> participants) {
+        List<String> userIds = participants.stream()
+                .map(p -> p.userId)
+                .filter(id -> id != null)
+                .distinct()
+                .toList();
+        broadcaster.broadcast(BoardDestinations.presence(projectId),
+                new PresenceMessage(type, projectId, userId, userIds));
+    }
+
+    private static long countSessions(Collection<Participant> participants, String userId) {
+        return participants.stream().filter(p -> userId.equals(p.userId)).count();
+    }
+
+    private static class SessionPresence {
+        private volatile String userId;
+        private volatile long lastSeen = System.currentTimeMillis();
+        // Timed out: off its boards until its next frame
+        private volatile boolean expired;
+        // subscriptionId -> projectId
+        private final Map<String, String> subscriptions = new ConcurrentHashMap<>();
+    }
+
+    private static class Participant {
+        private volatile String userId;
+        private final Instant joinedAt = Instant.now();
+
+        Participant(String userId) {
+            this.userId = userId;
+        }
+    }
+}
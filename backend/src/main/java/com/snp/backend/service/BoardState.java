@@ -0,0 +1,258 @@
+package com.snp.backend.service;
+
+import com.snp.backend.model.BoardOperation;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Replicated node state of one board.
+ *
+ * Every node field is a last-writer-wins register stamped with a Lamport clock
+ * and the writing replica's origin, which breaks ties. A delete is a tombstone
+ * stamped the same way; the node is visible while some field was written after
+ * the tombstone. Applying the same operations in any order yields the same
+ * state, so every client that applies the relayed result converges.
+ *
+ * Callers hold {@link #lock()} while reading or applying. It is a
+ * ReentrantLock rather than a monitor because relays and undo lookups do
+ * blocking I/O under it, which would pin a virtual thread.
+ */
+public class BoardState {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<String, NodeState> nodes = new HashMap<>();
+    private long clock;
+    private long seq; // Last operation-log sequence number applied
+    private long seqLimit; // End of the sequence block reserved for this board
+    private int sinceSnapshot; // Operations logged since the last snapshot
+    private volatile int nodeCount; // nodes.size(), readable without the lock
+    private volatile boolean seeded; // Nodes saved with the project have been added
+    private volatile long lastTouched = System.currentTimeMillis();
+
+    void lock() {
+        lock.lock();
+    }
+
+    void unlock() {
+        lock.unlock();
+    }
+
+    /**
+     * Advances the board clock past a received clock and returns the stamp for
+     * the operation, which orders it after everything already applied. A clock
+     * more than {@code maxLead} ahead of the board's is not from a replica that
+     * saw this board, and would let one sender win every future write.
+     *
+     * @throws IllegalArgumentException if the received clock is too far ahead
+     */
+    long stamp(Long received, long maxLead) {
+        if (received != null && received - clock > maxLead) {
+            throw new IllegalArgumentException("Clock " + received + " is ahead of the board's " + clock);
+        }
+        lastTouched = System.currentTimeMillis();
+        clock = Math.max(clock, received != null ? received : 0) + 1;
+        return clock;
+    }
+
+    /**
+     * Writes each field unless a newer write already holds it.
+     */
+    NodeState put(String key, Map<String, Object> fields, long stamp, String origin) {
+        NodeState node = node(key);
+        for (Map.Entry<String, Object> field : fields.entrySet()) {
+            Register current = node.fields.get(field.getKey());
+            if (current == null || newer(stamp, origin, current.stamp, current.origin)) {
+                node.fields.put(field.getKey(), new Register(field.getValue(), stamp, origin));
+            }
+        }
+        return node;
+    }
+
+    NodeState delete(String key, long stamp, String origin) {
+        NodeState node = node(key);
+        if (node.tombstone == null || newer(stamp, origin, node.tombstone.stamp, node.tombstone.origin)) {
+            node.tombstone = new Register(null, stamp, origin);
+        }
+        return node;
+    }
+
+    /**
+     * Re-applies a logged operation with its original stamp, as during
+     * recovery or replay.
+     */
+    void apply(BoardOperation op) {
+        String key = op.getTool() + ":" + op.getNodeId();
+        if (op.getAction() == BoardOperation.Action.DELETE) {
+            delete(key, op.getStamp(), op.getOrigin());
+        } else if (op.getFields() != null) {
+            put(key, op.getFields(), op.getStamp(), op.getOrigin());
+        }
+        clock = Math.max(clock, op.getStamp());
+        seq = Math.max(seq, op.getSeq());
+    }
+
+    /**
+     * Loads a snapshotted node; its fields are stamped with the node version.
+     */
+    void load(String key, Map<String, Object> fields, long version) {
+        put(key, fields, version, "");
+        clock = Math.max(clock, version);
+    }
+
+    long nextSeq() {
+        return ++seq;
+    }
+
+    // Sequence numbers left in the reserved block
+    boolean hasReservedSeq() {
+        return seq < seqLimit;
+    }
+
+    // Continues numbering from a block reserved in the log, after what this board has seen
+    void reserveSeq(long from, long limit) {
+        seq = Math.max(seq, from);
+        seqLimit = limit;
+    }
+
+    /**
+     * Counts a logged operation; true once {@code every} have been logged
+     * since the last snapshot.
+     */
+    boolean snapshotDue(int every) {
+        if (++sinceSnapshot < every) {
+            return false;
+        }
+        sinceSnapshot = 0;
+        return true;
+    }
+
+    long getSeq() {
+        return seq;
+    }
+
+    void setSeq(long seq) {
+        this.seq = seq;
+    }
+
+    private NodeState node(String key) {
+        NodeState node = nodes.get(key);
+        if (node == null) {
+            node = new NodeState();
+            nodes.put(key, node);
+            nodeCount = nodes.size();
+        }
+        return node;
+    }
+
+    void setClock(long clock) {
+        this.clock = Math.max(this.clock, clock);
+    }
+
+    Map<String, NodeState> getNodes() {
+        return Collections.unmodifiableMap(nodes);
+    }
+
+    /**
+     * The node, or null if this board has never seen it.
+     */
+    NodeState find(String key) {
+        return nodes.get(key);
+    }
+
+    long getClock() {
+        return clock;
+    }
+
+    /**
+     * Safe to call without the lock, for metrics.
+     */
+    int getNodeCount() {
+        return nodeCount;
+    }
+
+    boolean isSeeded() {
+        return seeded;
+    }
+
+    void markSeeded() {
+        seeded = true;
+    }
+
+    long getLastTouched() {
+        return lastTouched;
+    }
+
+    private static boolean newer(long stamp, String origin, long otherStamp, String otherOrigin) {
+        if (stamp != otherStamp) {
+            return stamp > otherStamp;
+        }
+        return nullToEmpty(origin).compareTo(nullToEmpty(otherOrigin)) > 0;
+    }
+
+    private static String nullToEmpty(String value) {
+        return value != null ? value : "";
+    }
+
+    static class NodeState {
+        private final Map<String, Register> fields = new LinkedHashMap<>();
+        private Register tombstone;
+
+        boolean isVisible() {
+            if (tombstone == null) {
+                return !fields.isEmpty();
+            }
+            for (Register field : fields.values()) {
+                if (newer(field.stamp, field.origin, tombstone.stamp, tombstone.origin)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Field values written after the last delete.
+         */
+        Map<String, Object> values() {
+            Map<String, Object> values = new LinkedHashMap<>();
+            fields.forEach((name, register) -> {
+                if (tombstone == null
+                        || newer(register.stamp, register.origin, tombstone.stamp, tombstone.origin)) {
+                    values.put(name, register.value);
+                }
+            });
+            return values;
+        }
+
+        boolean isDeleted() {
+            return tombstone != null && !isVisible();
+        }
+
+        /**
+         * A field's value, or null if unset or written before the last delete.
+         */
+        Object value(String name) {
+            Register register = fields.get(name);
+            if (register == null || (tombstone != null
+                    && !newer(register.stamp, register.origin, tombstone.stamp, tombstone.origin))) {
+                return null;
+            }
+            return register.value;
+        }
+
+        // Highest stamp applied to the node; clients drop relays older than what they hold
+        long version() {
+            long version = tombstone != null ? tombstone.stamp : 0;
+            for (Register field : fields.values()) {
+                version = Math.max(version, field.stamp);
+            }
+            return version;
+        }
+    }
+
+    private record Register(Object value, long stamp, String origin) {
+    }
+}
@@ -1,51 +1,179 @@
 package com.snp.backend.service;
 
-import com.snp.backend.repository.AnnouncementRepository;
-import com.snp.backend.repository.EventRepository;
-import com.snp.backend.repository.ScheduleRepository;
+import com.snp.backend.model.Announcement;
+import com.snp.backend.model.Job;
+import com.snp.backend.model.ScheduleEntry;
+import com.mongodb.client.result.DeleteResult;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDateTime;
-import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
+/**
+ * Continuous retention for announcements and schedule entries.
+ *
+ * Expiry is primarily handled by Mongo TTL indexes, which the server's TTL
+ * monitor applies in small passes every minute. The "retention-sweep" job is a
+ * throttled fallback for deployments where the TTL indexes could not be
+ * created: each chunk removes one bounded batch of expired ids, with a pause
+ * between batches, instead of one unbounded delete at midnight. Each run
+ * reuses one recurring job document rather than adding to the job history.
+ */
 @Service
-public class CleanupService {
+public class CleanupService implements JobHandler {
 
-    @Autowired
-    private AnnouncementRepository announcementRepository;
+    private static final Logger log = LoggerFactory.getLogger(CleanupService.class);
+
+    public static final String JOB_TYPE = "retention-sweep";
+
+    // Sweep phases, stored as the job checkpoint
+    private static final String PHASE_ANNOUNCEMENTS = "announcements";
+    private static final String PHASE_SCHEDULE = "schedule";
 
     @Autowired
-    private EventRepository eventRepository;
+    private MongoTemplate mongoTemplate;
 
     @Autowired
-    private ScheduleRepository scheduleRepository;
+    private JobService jobService;
 
-    // Run every day at midnight (Server time)
-    @Scheduled(cron = "0 0 0 * * ?")
-    public void cleanupOldData() {
-        System.out.println("Starting daily cleanup of old data...");
+    @Value("${retention.ttl-indexes.enabled:true}")
+    private boolean ttlIndexesEnabled;
 
-        // Threshold: 1 day after completion
-        // Use 24 hours ago as the cutoff
-        long retentionPeriodDays = 1;
+    @Value("${retention.batch-size:500}")
+    private int batchSize;
 
-        try {
-            // 1. Clean Announcements based on Expiry Date
-            // Normal posts expire in 7 days, Schedule posts expire 1 day after event
-            Instant now = Instant.now();
-            announcementRepository.deleteByExpiryDateBefore(now);
-            System.out.println("Cleaned expired announcements.");
+    @Value("${retention.batch-pause-ms:200}")
+    private long batchPauseMs;
 
-            // 2. Clean Schedule/Calendar
-            LocalDateTime scheduleCutoff = LocalDateTime.now().minusDays(retentionPeriodDays);
-            scheduleRepository.deleteByDateBefore(scheduleCutoff);
-            System.out.println("Cleaned schedule entries older than: " + scheduleCutoff);
+    @Value("${retention.schedule-retention-days:1}")
+    private long scheduleRetentionDays;
 
+    private final RetentionStats stats = new RetentionStats();
+
+    // Before IndexBootstrapper, which skips keys that already have an index but would otherwise take "date"
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void ensureTtlIndexes() {
+        if (!ttlIndexesEnabled) {
+            return;
+        }
+
+        // Announcements carry their own expiry instant: expire exactly at expiryDate
+        ensureTtlIndex(Announcement.class, "expiryDate", Duration.ZERO);
+
+        // Schedule entries expire a fixed period after their date
+        ensureTtlIndex(ScheduleEntry.class, "date", Duration.ofDays(scheduleRetentionDays));
+    }
+
+    private void ensureTtlIndex(Class<?> type, String field, Duration expireAfter) {
+        try {
+            mongoTemplate.indexOps(type).ensureIndex(new Index()
+                    .on(field, Sort.Direction.ASC)
+                    .named(field + "_ttl")
+                    .expire(expireAfter));
         } catch (Exception e) {
-            System.err.println("Error during cleanup: " + e.getMessage());
+            // Typically an existing non-TTL index on the same key; the sweep still covers it
+            log.warn("Could not create TTL index on {}.{}: {}", mongoTemplate.getCollectionName(type), field,
+                    e.getMessage());
         }
     }
+
+    @Scheduled(fixedDelayString = "${retention.sweep-interval-ms:300000}",
+            initialDelayString = "${retention.sweep-initial-delay-ms:60000}")
+    public void cleanupOldData() {
+        try {
+            jobService.submitRecurring(JOB_TYPE);
+        } catch (IllegalStateException e) {
+            log.info("Skipping retention sweep: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public String getType() {
+        return JOB_TYPE;
+    }
+
+    @Override
+    public boolean processChunk(Job job) {
+        String phase = job.getCheckpoint() != null ? job.getCheckpoint() : PHASE_ANNOUNCEMENTS;
+        long removed;
+
+        if (PHASE_ANNOUNCEMENTS.equals(phase)) {
+            // Normal posts expire in 7 days, schedule posts 1 day after the event
+            removed = deleteBatch(Announcement.class, Criteria.where("expiryDate").lt(Instant.now()));
+            if (removed < batchSize) {
+                phase = PHASE_SCHEDULE;
+            }
+        } else {
+            LocalDateTime scheduleCutoff = LocalDateTime.now().minusDays(scheduleRetentionDays);
+            removed = deleteBatch(ScheduleEntry.class, Criteria.where("date").lt(scheduleCutoff));
+            if (removed < batchSize) {
+                phase = null;
+            }
+        }
+
+        job.setProcessed(job.getProcessed() + removed);
+        if (phase == null) {
+            return false;
+        }
+        job.setCheckpoint(phase);
+        return true;
+    }
+
+    @Override
+    public long chunkPauseMillis() {
+        return batchPauseMs;
+    }
+
+    @Override
+    public void onFinished(Job job) {
+        if (job.getStatus() == Job.Status.FAILED) {
+            stats.recordFailure();
+        }
+        Instant started = job.getStartedAt() != null ? job.getStartedAt() : job.getCreatedAt();
+        stats.recordRun(job.getProcessed(), Duration.between(started, job.getFinishedAt()).toNanos());
+    }
+
+    /**
+     * Deletes up to {@code batchSize} matching documents by id.
+     */
+    private long deleteBatch(Class<?> type, Criteria criteria) {
+        Query query = new Query(criteria).limit(batchSize);
+        query.fields().include("_id");
+
+        List<Object> ids = mongoTemplate.query(type).as(Document.class).matching(query).all()
+                .stream()
+                .map(doc -> doc.get("_id"))
+                .collect(Collectors.toList());
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        DeleteResult result = mongoTemplate.remove(new Query(Criteria.where("_id").in(ids)), type);
+        stats.recordRemoved(mongoTemplate.getCollectionName(type), result.getDeletedCount());
+        return result.getDeletedCount();
+    }
+
+    public Map<String, Object> getStats() {
+        return stats.snapshot();
+    }
 }
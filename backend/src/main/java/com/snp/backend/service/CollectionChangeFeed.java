@@ -0,0 +1,97 @@
+package com.snp.backend.service;
+
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import jakarta.annotation.PreDestroy;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tails the database change stream and bumps {@link CollectionVersions} for
+ * every change, including ones this instance can't see through mapping
+ * events: writes from other instances, TTL expirations and template updates.
+ *
+ * Change streams need a replica set or sharded cluster, so this is opt-in
+ * via {@code cache.change-stream.enabled}. After an interruption every
+ * version is bumped once, since changes may have been missed.
+ */
+@Service
+@ConditionalOnProperty(name = "cache.change-stream.enabled", havingValue = "true")
+public class CollectionChangeFeed {
+
+    private static final Logger log = LoggerFactory.getLogger(CollectionChangeFeed.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private CollectionVersions collectionVersions;
+
+    private volatile boolean running;
+    private Thread watcher;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        running = true;
+        watcher = new Thread(this::watchLoop, "collection-change-feed");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (watcher != null) {
+            watcher.interrupt();
+        }
+    }
+
+    private void watchLoop() {
+        BsonDocument resumeToken = null;
+        while (running) {
+            var stream = mongoTemplate.getDb().watch().maxAwaitTime(1, TimeUnit.SECONDS);
+            if (resumeToken != null) {
+                stream = stream.resumeAfter(resumeToken);
+            }
+            try (MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = stream.cursor()) {
+                while (running) {
+                    ChangeStreamDocument<Document> change = cursor.tryNext();
+                    if (change == null) {
+                        continue;
+                    }
+                    resumeToken = change.getResumeToken();
+                    if (change.getNamespace() != null) {
+                        collectionVersions.bump(change.getNamespace().getCollectionName());
+                    }
+                }
+            } catch (Exception e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Change stream error, retrying: {}", e.getMessage());
+                // The resume token may be gone; start fresh and treat everything as changed
+                resumeToken = null;
+                collectionVersions.bumpAll();
+            }
+
+            if (running) {
+                try {
+                    Thread.sleep(1000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+}
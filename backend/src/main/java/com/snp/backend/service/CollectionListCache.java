@@ -0,0 +1,99 @@
+package com.snp.backend.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Caches whole query results until a collection they were read from changes.
+ *
+ * Each entry remembers the {@link CollectionVersions} of its collections at
+ * the time it was loaded and is served as long as they are unchanged. Versions
+ * are read before loading, so a write that races with a load leaves the entry
+ * stale-versioned and the next read reloads it. Entries also expire after
+ * {@code cache.lists.max-age-ms}, which bounds staleness from changes no
+ * version reflects (TTL deletes, other instances) when the change feed is off.
+ *
+ * Cached values are shared between requests and must not be modified.
+ */
+@Component
+public class CollectionListCache {
+
+    @Autowired
+    private CollectionVersions collectionVersions;
+
+    @Value("${cache.lists.enabled:true}")
+    private boolean enabled;
+
+    @Value("${cache.lists.max-age-ms:60000}")
+    private long maxAgeMs;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    @SuppressWarnings("unchecked")
+    public <T> T get(String key, List<String> collections, Supplier<T> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        long[] versions = new long[collections.size()];
+        for (int i = 0; i < versions.length; i++) {
+            versions[i] = collectionVersions.get(collections.get(i));
+        }
+
+        Entry entry = entries.get(key);
+        if (entry != null && entry.isCurrent(versions, maxAgeMs)) {
+            hits.incrementAndGet();
+            return (T) entry.value;
+        }
+
+        misses.incrementAndGet();
+        T value = loader.get();
+        entries.put(key, new Entry(value, versions));
+        return value;
+    }
+
+    public void evictAll() {
+        entries.clear();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("entries", entries.size());
+        stats.put("hits", hits.get());
+        stats.put("misses", misses.get());
+        stats.put("versions", collectionVersions.snapshot());
+        return stats;
+    }
+
+    private static class Entry {
+        private final Object value;
+        private final long[] versions;
+        private final long loadedAt = System.currentTimeMillis();
+
+        Entry(Object value, long[] versions) {
+            this.value = value;
+            this.versions = versions;
+        }
+
+        boolean isCurrent(long[] current, long maxAgeMs) {
+            if (System.currentTimeMillis() - loadedAt > maxAgeMs) {
+                return false;
+            }
+            for (int i = 0; i < current.length; i++) {
+                if (versions[i] != current[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.snp.backend.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bumps {@link CollectionVersions} on every save/delete that goes through the
+ * Mongo mapping layer. Writes that bypass it (template updates, bulk
+ * operations) bump the version where they are made.
+ */
+@Component
+public class CollectionVersionListener extends AbstractMongoEventListener<Object> {
+
+    @Autowired
+    private CollectionVersions collectionVersions;
+
+    @Override
+    public void onAfterSave(AfterSaveEvent<Object> event) {
+        collectionVersions.bump(event.getCollectionName());
+    }
+
+    @Override
+    public void onAfterDelete(AfterDeleteEvent<Object> event) {
+        collectionVersions.bump(event.getCollectionName());
+    }
+}
@@ -0,0 +1,52 @@
+package com.snp.backend.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-collection write counters. A collection's version changes whenever a
+ * write to it goes through this instance, so a version seen twice means the
+ * collection's contents didn't change in between.
+ *
+ * Versions are local to the process; {@link #getEpoch()} identifies the
+ * process so versions from different instances or restarts never compare
+ * equal.
+ */
+@Component
+public class CollectionVersions {
+
+    private final String epoch = UUID.randomUUID().toString().substring(0, 8);
+    private final Map<String, AtomicLong> versions = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong(); // Added to every version
+
+    public long get(String collection) {
+        AtomicLong version = versions.get(collection);
+        return (version != null ? version.get() : 0) + generation.get();
+    }
+
+    public void bump(String collection) {
+        if (collection != null) {
+            versions.computeIfAbsent(collection, c -> new AtomicLong()).incrementAndGet();
+        }
+    }
+
+    // Invalidates everything derived from any collection
+    public void bumpAll() {
+        generation.incrementAndGet();
+    }
+
+    public String getEpoch() {
+        return epoch;
+    }
+
+    public Map<String, Long> snapshot() {
+        Map<String, Long> result = new LinkedHashMap<>();
+        versions.forEach((collection, version) -> result.put(collection, version.get() + generation.get()));
+        return result;
+    }
+}
@@ -0,0 +1,321 @@
+package com.snp.backend.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * A cursor movement as the client sent it, checked in place so it can be
+ * relayed without a CursorMessage round trip.
+ *
+ * {@link #read} accepts a frame only if it is a single flat JSON object with
+ * exactly the CursorMessage fields, each once: userId, projectId and color as
+ * strings (userId and color may be null), x and y as numbers, each string well
+ * formed JSON and valid UTF-8, and projectId plain ASCII. Such a frame is
+ * already what re-serializing the CursorMessage would produce, up to field
+ * order and whitespace, so its bytes can go to subscribers unchanged. Anything
+ * else (missing, repeated or extra fields, numbers sent as strings, escapes in
+ * an id, malformed UTF-8) returns null and is left to the regular Jackson path.
+ *
+ * Scanning keeps only offsets into the frame, on an instance reused by the
+ * calling thread: valid until that thread's next read.
+ */
+public final class CursorFrame {
+
+    private static final ThreadLocal<CursorFrame> FRAMES = ThreadLocal.withInitial(CursorFrame::new);
+
+    private static final byte[] USER_ID = ascii("userId");
+    private static final byte[] PROJECT_ID = ascii("projectId");
+    private static final byte[] X = ascii("x");
+    private static final byte[] Y = ascii("y");
+    private static final byte[] COLOR = ascii("color");
+    private static final int ALL_FIELDS = 0b11111;
+
+    private byte[] json;
+    private int pos;
+    private int userIdStart;
+    private int userIdEnd;
+    private int projectIdStart;
+    private int projectIdEnd;
+
+    private CursorFrame() {
+    }
+
+    /**
+     * The frame on the calling thread's reusable instance, or null if it is
+     * not a plain cursor object.
+     */
+    public static CursorFrame read(byte[] json) {
+        CursorFrame frame = FRAMES.get();
+        if (frame.scan(json)) {
+            return frame;
+        }
+        frame.json = null;
+        return null;
+    }
+
+    public byte[] json() {
+        return json;
+    }
+
+    // Cached, so the same project's frames share one destination string
+    public String destination() {
+        return BoardDestinations.cursors(json, projectIdStart, projectIdEnd);
+    }
+
+    public String userId() {
+        return userIdStart < 0 ? null
+                : new String(json, userIdStart, userIdEnd - userIdStart, StandardCharsets.UTF_8);
+    }
+
+    private boolean scan(byte[] frame) {
+        json = frame;
+        pos = 0;
+        userIdStart = -1;
+        projectIdStart = -1;
+        int seen = 0;
+
+        skipWhitespace();
+        if (!consume('{')) {
+            return false;
+        }
+        skipWhitespace();
+        if (peek() == '}') {
+            return false;
+        }
+        while (true) {
+            int keyStart = pos + 1;
+            if (!string(false)) {
+                return false;
+            }
+            int keyEnd = pos - 1;
+            skipWhitespace();
+            if (!consume(':')) {
+                return false;
+            }
+            skipWhitespace();
+
+            int field;
+            if (is(USER_ID, keyStart, keyEnd)) {
+                field = 0;
+                if (!nullableString(true)) {
+                    return false;
+                }
+            } else if (is(PROJECT_ID, keyStart, keyEnd)) {
+                field = 1;
+                int valueStart = pos + 1;
+                if (peek() != '"' || !string(true) || !ascii(valueStart, pos - 1) || pos - 1 == valueStart) {
+                    return false;
+                }
+                projectIdStart = valueStart;
+                projectIdEnd = pos - 1;
+            } else if (is(X, keyStart, keyEnd)) {
+                field = 2;
+                if (!number()) {
+                    return false;
+                }
+            } else if (is(Y, keyStart, keyEnd)) {
+                field = 3;
+                if (!number()) {
+                    return false;
+                }
+            } else if (is(COLOR, keyStart, keyEnd)) {
+                field = 4;
+                if (!nullableString(false)) {
+                    return false;
+                }
+            } else {
+                return false;
+            }
+            if ((seen & 1 << field) != 0) {
+                return false; // Repeated key: Jackson would keep the last, subscribers might read the first
+            }
+            seen |= 1 << field;
+
+            skipWhitespace();
+            if (consume('}')) {
+                break;
+            }
+            if (!consume(',')) {
+                return false;
+            }
+            skipWhitespace();
+        }
+        skipWhitespace();
+        return pos == json.length && seen == ALL_FIELDS;
+    }
+
+    // A string or null; a userId string's bounds are recorded
+    private boolean nullableString(boolean userId) {
+        if (peek() == 'n') {
+            if (userId) {
+                userIdStart = -1;
+            }
+            return literal("null");
+        }
+        int valueStart = pos + 1;
+        if (peek() != '"' || !string(userId)) {
+            return false;
+        }
+        if (userId) {
+            userIdStart = valueStart;
+            userIdEnd = pos - 1;
+        }
+        return true;
+    }
+
+    /**
+     * A JSON string starting at pos, leaving pos after the closing quote.
+     * With plain set, escapes are refused so the bytes are the value itself.
+     */
+    private boolean string(boolean plain) {
+        if (!consume('"')) {
+            return false;
+        }
+        while (pos < json.length) {
+            byte b = json[pos++];
+            if (b == '"') {
+                return true;
+            }
+            if (b >= 0 && b < 0x20) {
+                return false;
+            }
+            if (b < 0 && !utf8Sequence(b)) {
+                return false;
+            }
+            if (b == '\\') {
+                if (plain || pos >= json.length) {
+                    return false;
+                }
+                byte escaped = json[pos++];
+                if (escaped == 'u') {
+                    for (int i = 0; i < 4; i++) {
+                        if (pos >= json.length || Character.digit(json[pos++], 16) < 0) {
+                            return false;
+                        }
+                    }
+                } else if ("\"\\/bfnrt".indexOf(escaped) < 0) {
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The rest of a multi-byte UTF-8 character whose lead byte was just read,
+     * rejecting overlong forms, surrogates and code points above U+10FFFF.
+     */
+    private boolean utf8Sequence(byte lead) {
+        int b = lead & 0xFF;
+        int continuation;
+        int min = 0x80;
+        int max = 0xBF;
+        if (b >= 0xC2 && b <= 0xDF) {
+            continuation = 1;
+        } else if (b >= 0xE0 && b <= 0xEF) {
+            continuation = 2;
+            if (b == 0xE0) {
+                min = 0xA0;
+            } else if (b == 0xED) {
+                max = 0x9F;
+            }
+        } else if (b >= 0xF0 && b <= 0xF4) {
+            continuation = 3;
+            if (b == 0xF0) {
+                min = 0x90;
+            } else if (b == 0xF4) {
+                max = 0x8F;
+            }
+        } else {
+            return false;
+        }
+        for (int i = 0; i < continuation; i++) {
+            if (pos >= json.length) {
+                return false;
+            }
+            int next = json[pos++] & 0xFF;
+            if (next < min || next > max) {
+                return false;
+            }
+            min = 0x80;
+            max = 0xBF;
+        }
+        return true;
+    }
+
+    // -?(0|[1-9][0-9]*)(\.[0-9]+)?([eE][+-]?[0-9]+)?
+    private boolean number() {
+        consume('-');
+        if (consume('0')) {
+            // No leading zeros
+        } else if (!digits()) {
+            return false;
+        }
+        if (consume('.') && !digits()) {
+            return false;
+        }
+        if (consume('e') || consume('E')) {
+            if (!consume('+')) {
+                consume('-');
+            }
+            return digits();
+        }
+        return true;
+    }
+
+    private boolean digits() {
+        int start = pos;
+        while (pos < json.length && json[pos] >= '0' && json[pos] <= '9') {
+            pos++;
+        }
+        return pos > start;
+    }
+
+    private boolean literal(String word) {
+        for (int i = 0; i < word.length(); i++) {
+            if (!consume(word.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void skipWhitespace() {
+        while (pos < json.length) {
+            byte b = json[pos];
+            if (b != ' ' && b != '\t' && b != '\n' && b != '\r') {
+                return;
+            }
+            pos++;
+        }
+    }
+
+    private boolean consume(char expected) {
+        if (pos < json.length && json[pos] == expected) {
+            pos++;
+            return true;
+        }
+        return false;
+    }
+
+    private int peek() {
+        return pos < json.length ? json[pos] : -1;
+    }
+
+    private boolean is(byte[] key, int start, int end) {
+        return Arrays.equals(json, start, end, key, 0, key.length);
+    }
+
+    private boolean ascii(int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (json[i] < 0x20) { // Negative: part of a multi-byte character
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+}
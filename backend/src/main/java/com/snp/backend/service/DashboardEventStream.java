@@ -0,0 +1,368 @@
+package com.snp.backend.service;
+
+import com.snp.backend.model.DashboardChange;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Server-sent event stream of changes to announcements, events and schedule
+ * entries, for clients that can't keep a STOMP session open.
+ *
+ * Every save or delete that goes through the Mongo mapping layer becomes an
+ * event named after its collection, with id {@code <epoch>-<seq>}. The last
+ * {@code sse.dashboard.replay-size} events are kept, so a client reconnecting
+ * with Last-Event-ID gets what it missed; if that id is older than the buffer
+ * or from another process, it gets a RESET and should refetch the lists. A
+ * new stream starts with a READY event carrying the current id.
+ *
+ * A dispatcher thread hands each subscriber's pending events to a pool of
+ * {@code sse.dashboard.send-threads} senders, one delivery per subscriber at
+ * a time, so a client that stops reading only holds up its own stream. A
+ * subscriber whose delivery has been running for longer than
+ * {@code sse.dashboard.max-send-ms} is dropped. Idle streams get a comment every
+ * {@code sse.dashboard.heartbeat-ms} to keep proxies from closing them. Like
+ * {@link CollectionVersionListener}, the stream only sees writes made through
+ * this instance.
+ */
+@Service
+public class DashboardEventStream extends AbstractMongoEventListener<Object> {
+
+    // Mongo collection -> event name
+    private static final Map<String, String> STREAMS = Map.of(
+            "announcements", "announcements",
+            "events", "events",
+            "schedule_entries", "schedule");
+
+    @Value("${sse.dashboard.replay-size:500}")
+    private int replaySize;
+
+    @Value("${sse.dashboard.max-subscribers:2000}")
+    private int maxSubscribers;
+
+    @Value("${sse.dashboard.timeout-ms:900000}")
+    private long timeoutMs;
+
+    @Value("${sse.dashboard.heartbeat-ms:15000}")
+    private long heartbeatMs;
+
+    @Value("${sse.dashboard.send-threads:4}")
+    private int sendThreads;
+
+    @Value("${sse.dashboard.max-send-ms:10000}")
+    private long maxSendMs;
+
+    private final String epoch = UUID.randomUUID().toString().substring(0, 8);
+    private final Deque<Entry> buffer = new ArrayDeque<>();
+    private final ReentrantLock bufferLock = new ReentrantLock();
+    private long seq; // Guarded by bufferLock
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final Semaphore wakeups = new Semaphore(0);
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong resets = new AtomicLong();
+    private final AtomicLong stalled = new AtomicLong();
+
+    private volatile boolean running;
+    private Thread dispatcher;
+    private ThreadPoolExecutor senders;
+
+    @PostConstruct
+    public void init() {
+        // At most one queued delivery per subscriber
+        senders = new ThreadPoolExecutor(sendThreads, sendThreads, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(maxSubscribers), runnable -> {
+                    Thread thread = new Thread(runnable, "dashboard-sse-send");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        running = true;
+        dispatcher = new Thread(this::dispatchLoop, "dashboard-sse");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (dispatcher != null) {
+            dispatcher.interrupt();
+        }
+        senders.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+    }
+
+    // --- Changes ---
+
+    @Override
+    public void onAfterSave(AfterSaveEvent<Object> event) {
+        String stream = STREAMS.get(event.getCollectionName());
+        if (stream != null) {
+            publish(new DashboardChange("SAVE", stream, idOf(event.getDocument()), event.getSource()));
+        }
+    }
+
+    @Override
+    public void onAfterDelete(AfterDeleteEvent<Object> event) {
+        String stream = STREAMS.get(event.getCollectionName());
+        if (stream == null) {
+            return;
+        }
+        String id = idOf(event.getDocument());
+        // A delete by query other than _id can't be described by one id
+        publish(id != null ? new DashboardChange("DELETE", stream, id, null)
+                : new DashboardChange("RESET", stream, null, null));
+    }
+
+    private void publish(DashboardChange change) {
+        bufferLock.lock();
+        try {
+            buffer.addLast(new Entry(++seq, change));
+            while (buffer.size() > replaySize) {
+                buffer.removeFirst();
+            }
+        } finally {
+            bufferLock.unlock();
+        }
+        wakeups.release();
+    }
+
+    // --- Subscribers ---
+
+    /**
+     * Opens a stream resuming after {@code lastEventId}, or from now if null.
+     *
+     * @throws IllegalStateException if the subscriber limit is reached
+     */
+    public SseEmitter subscribe(String lastEventId) {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new IllegalStateException("Too many dashboard streams");
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(emitter);
+
+        long current;
+        long oldest;
+        bufferLock.lock();
+        try {
+            current = seq;
+            oldest = buffer.isEmpty() ? seq + 1 : buffer.peekFirst().seq;
+        } finally {
+            bufferLock.unlock();
+        }
+
+        Long resumeFrom = parse(lastEventId);
+        if (resumeFrom != null && resumeFrom >= oldest - 1 && resumeFrom <= current) {
+            subscriber.lastSent = resumeFrom;
+        } else {
+            subscriber.lastSent = current;
+            String type = lastEventId != null ? "RESET" : "READY";
+            if (lastEventId != null) {
+                resets.incrementAndGet();
+            }
+            if (!send(subscriber, current, "control", new DashboardChange(type, null, null, null))) {
+                return emitter;
+            }
+        }
+
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        wakeups.release(); // Replays anything after lastEventId
+        return emitter;
+    }
+
+    private void dispatchLoop() {
+        long lastHeartbeat = System.currentTimeMillis();
+        while (running) {
+            try {
+                wakeups.tryAcquire(heartbeatMs, TimeUnit.MILLISECONDS);
+                wakeups.drainPermits();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+
+            List<Entry> entries;
+            bufferLock.lock();
+            try {
+                entries = new ArrayList<>(buffer);
+            } finally {
+                bufferLock.unlock();
+            }
+
+            long now = System.currentTimeMillis();
+            boolean heartbeat = now - lastHeartbeat >= heartbeatMs;
+            for (Subscriber subscriber : subscribers) {
+                dispatch(subscriber, entries, heartbeat, now);
+            }
+            if (heartbeat) {
+                lastHeartbeat = now;
+            }
+        }
+    }
+
+    // Hands the subscriber's delivery to a sender, unless its previous one is still running
+    private void dispatch(Subscriber subscriber, List<Entry> entries, boolean heartbeat, long now) {
+        if (!subscriber.busy.compareAndSet(false, true)) {
+            if (now - subscriber.busySince > maxSendMs && subscribers.remove(subscriber)) {
+                // Stuck writing to a client that stopped reading; closed once that write gives up
+                subscriber.stalled = true;
+                stalled.incrementAndGet();
+            }
+            return;
+        }
+        subscriber.busySince = now;
+        try {
+            senders.execute(() -> {
+                try {
+                    deliver(subscriber, entries, heartbeat);
+                } finally {
+                    subscriber.busy.set(false);
+                    if (subscriber.stalled) {
+                        subscriber.emitter.completeWithError(new IOException("Dashboard stream too slow"));
+                    } else if (subscriber.lastSent < latestSeq() && subscribers.contains(subscriber)) {
+                        wakeups.release(); // Published while this delivery ran
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            subscriber.busy.set(false); // Shutting down
+        }
+    }
+
+    private long latestSeq() {
+        bufferLock.lock();
+        try {
+            return seq;
+        } finally {
+            bufferLock.unlock();
+        }
+    }
+
+    private void deliver(Subscriber subscriber, List<Entry> entries, boolean heartbeat) {
+        if (!entries.isEmpty() && entries.get(0).seq > subscriber.lastSent + 1) {
+            // Fell behind the buffer while its previous delivery was running
+            resets.incrementAndGet();
+            long last = entries.get(entries.size() - 1).seq;
+            send(subscriber, last, "control", new DashboardChange("RESET", null, null, null));
+            return;
+        }
+        boolean wrote = false;
+        for (Entry entry : entries) {
+            if (entry.seq > subscriber.lastSent) {
+                if (!send(subscriber, entry.seq, entry.change.getCollection(), entry.change)) {
+                    return;
+                }
+                wrote = true;
+            }
+        }
+        if (heartbeat && !wrote) {
+            try {
+                subscriber.emitter.send(SseEmitter.event().comment("keep-alive"));
+            } catch (IOException | IllegalStateException e) {
+                drop(subscriber);
+            }
+        }
+    }
+
+    private boolean send(Subscriber subscriber, long entrySeq, String name, DashboardChange change) {
+        try {
+            subscriber.emitter.send(SseEmitter.event()
+                    .id(epoch + "-" + entrySeq)
+                    .name(name)
+                    .data(change));
+            subscriber.lastSent = entrySeq;
+            sent.incrementAndGet();
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            drop(subscriber);
+            return false;
+        }
+    }
+
+    private void drop(Subscriber subscriber) {
+        subscribers.remove(subscriber);
+        subscriber.emitter.completeWithError(new IOException("Dashboard stream closed"));
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        bufferLock.lock();
+        try {
+            stats.put("seq", seq);
+            stats.put("buffered", buffer.size());
+        } finally {
+            bufferLock.unlock();
+        }
+        stats.put("subscribers", subscribers.size());
+        stats.put("sent", sent.get());
+        stats.put("resets", resets.get());
+        stats.put("stalled", stalled.get());
+        return stats;
+    }
+
+    // The sequence number of an id from this process, or null
+    private Long parse(String eventId) {
+        if (eventId == null || !eventId.startsWith(epoch + "-")) {
+            return null;
+        }
+        try {
+            return Long.parseLong(eventId.substring(epoch.length() + 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static String idOf(Document document) {
+        Object id = document != null ? document.get("_id") : null;
+        return id instanceof Document ? null : id != null ? id.toString() : null;
+    }
+
+    private record Entry(long seq, DashboardChange change) {
+    }
+
+    private static class Subscriber {
+        private final SseEmitter emitter;
+        private final AtomicBoolean busy = new AtomicBoolean(); // A sender is delivering to it
+        private volatile long busySince;
+        private volatile boolean stalled;
+        private volatile long lastSent;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+    }
+}
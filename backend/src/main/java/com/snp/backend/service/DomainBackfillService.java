@@ -0,0 +1,184 @@
+package com.snp.backend.service;
+
+import com.snp.backend.model.Job;
+import com.snp.backend.model.User;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * Fills in missing profile fields (domains, department, year, section,
+ * register number) for existing users, as the "backfill-domains" job.
+ *
+ * Each chunk reads the next {@code batchSize} users missing at least one field
+ * through a cursor sorted by _id and projected to the checked fields, and sends
+ * one unordered bulk write that only $sets the fields that were missing. The
+ * last processed _id is the job checkpoint.
+ */
+@Service
+public class DomainBackfillService implements JobHandler {
+
+    public static final String JOB_TYPE = "backfill-domains";
+
+    // Matching domains from frontend: Management, Tech, WebDev, Content, Design,
+    // Marketing
+    private static final String[] DOMAINS = { "Management", "Tech", "Web Dev", "Content", "Design", "Marketing" };
+    private static final String[] DEPARTMENTS = { "CSE", "ECE", "MECH", "EEE", "CIVIL", "IT", "AI&DS" };
+    private static final String[] YEARS = { "I", "II", "III", "IV" };
+    private static final String[] SECTIONS = { "A", "B", "C" };
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private CollectionVersions collectionVersions;
+
+    @Value("${backfill.batch-size:500}")
+    private int defaultBatchSize;
+
+    private final Random random = new Random();
+
+    @Override
+    public String getType() {
+        return JOB_TYPE;
+    }
+
+    @Override
+    public Long estimateTotal(Job job) {
+        return mongoTemplate.count(new Query(missingFieldsCriteria(startAfter(job))),
+                mongoTemplate.getCollectionName(User.class));
+    }
+
+    @Override
+    public boolean processChunk(Job job) {
+        String collection = mongoTemplate.getCollectionName(User.class);
+        int batchSize = Math.max(1, job.getIntParam("batchSize", defaultBatchSize));
+
+        Query query = new Query(missingFieldsCriteria(startAfter(job)))
+                .with(Sort.by(Sort.Direction.ASC, "_id"))
+                .limit(batchSize)
+                .cursorBatchSize(batchSize);
+        query.fields().include("_id", "domains", "department", "year", "section", "registerNumber");
+
+        BulkOperations bulk = null;
+        int scanned = 0;
+        Object lastId = null;
+
+        try (Stream<Document> users = mongoTemplate.stream(query, Document.class, collection)) {
+            for (Document user : (Iterable<Document>) users::iterator) {
+                scanned++;
+                lastId = user.get("_id");
+
+                Update update = missingFields(user);
+                if (update == null) {
+                    continue;
+                }
+
+                if (bulk == null) {
+                    bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, collection);
+                }
+                bulk.updateOne(Query.query(Criteria.where("_id").is(lastId)), update);
+            }
+        }
+
+        if (bulk != null) {
+            bulk.execute();
+            // Bulk writes bypass the mapping events that keep the user cache and versions fresh
+            userCache.evictAll();
+            collectionVersions.bump(collection);
+        }
+        if (lastId != null) {
+            job.setCheckpoint(lastId.toString());
+        }
+        job.setProcessed(job.getProcessed() + scanned);
+
+        return scanned == batchSize;
+    }
+
+    // A new job may be seeded with the checkpoint of an earlier run
+    private String startAfter(Job job) {
+        return job.getCheckpoint() != null ? job.getCheckpoint() : job.getParams().get("resumeAfter");
+    }
+
+    private Criteria missingFieldsCriteria(String afterId) {
+        Criteria missing = new Criteria().orOperator(
+                Criteria.where("domains").is(null),
+                Criteria.where("domains").size(0),
+                Criteria.where("department").in(null, ""),
+                Criteria.where("year").in(null, ""),
+                Criteria.where("section").in(null, ""),
+                Criteria.where("registerNumber").in(null, ""));
+        if (afterId == null) {
+            return missing;
+        }
+        return new Criteria().andOperator(Criteria.where("_id").gt(new ObjectId(afterId)), missing);
+    }
+
+    /**
+     * Builds a $set for the fields this user is missing, or null if none are.
+     */
+    private Update missingFields(Document user) {
+        Update update = new Update();
+        boolean changed = false;
+
+        List<?> domains = user.getList("domains", Object.class);
+        if (domains == null || domains.isEmpty()) {
+            // Determine how many domains to assign (1 or 2)
+            int numDomains = random.nextInt(2) + 1;
+            List<String> newDomains = new ArrayList<>();
+            for (int i = 0; i < numDomains; i++) {
+                String d = DOMAINS[random.nextInt(DOMAINS.length)];
+                if (!newDomains.contains(d)) {
+                    newDomains.add(d);
+                }
+            }
+            update.set("domains", newDomains);
+            changed = true;
+        }
+
+        if (isBlank(user.getString("department"))) {
+            update.set("department", DEPARTMENTS[random.nextInt(DEPARTMENTS.length)]);
+            changed = true;
+        }
+
+        if (isBlank(user.getString("year"))) {
+            update.set("year", YEARS[random.nextInt(YEARS.length)]);
+            changed = true;
+        }
+
+        if (isBlank(user.getString("section"))) {
+            update.set("section", SECTIONS[random.nextInt(SECTIONS.length)]);
+            changed = true;
+        }
+
+        if (isBlank(user.getString("registerNumber"))) {
+            // Generate random reg number: 3123 + year(2digits) + 104 + random(3digits)
+            int yearPrefix = 21 + random.nextInt(4);
+            int randomId = 100 + random.nextInt(900);
+            update.set("registerNumber", "3123" + yearPrefix + "104" + randomId);
+            changed = true;
+        }
+
+        return changed ? update : null;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isEmpty();
+    }
+}
@@ -0,0 +1,212 @@
+package com.snp.backend.service;
+
+import com.snp.backend.model.Announcement;
+import com.snp.backend.model.Attendance;
+import com.snp.backend.model.BoardOperation;
+import com.snp.backend.model.BoardSnapshot;
+import com.snp.backend.model.Event;
+import com.snp.backend.model.Job;
+import com.snp.backend.model.MembershipRequest;
+import com.snp.backend.model.Project;
+import com.snp.backend.model.ScheduleEntry;
+import com.snp.backend.model.User;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexField;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.PartialIndexFilter;
+import org.springframework.data.mongodb.core.query.Collation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.repository.core.RepositoryInformation;
+import org.springframework.data.repository.core.support.RepositoryFactoryInformation;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Creates an index for every repository query method at startup.
+ *
+ * Each declaration names the query methods it serves. After creating them,
+ * every query method of every repository is checked against the
+ * declarations and those without one are logged, so a new derived query
+ * that would scan its collection is noticed on the next start. Indexes
+ * created elsewhere (board log, job history TTL, retention TTLs, the user
+ * directory) are not repeated here; a declaration is skipped when an index
+ * with the same keys and collation already exists, whatever its options.
+ */
+@Service
+public class IndexBootstrapper {
+
+    private static final Logger log = LoggerFactory.getLogger(IndexBootstrapper.class);
+
+    // Matches UserRepository.CASE_INSENSITIVE, the collation of the lookups these indexes serve
+    private static final Collation CASE_INSENSITIVE_COLLATION = Collation.of("en")
+            .strength(Collation.ComparisonLevel.secondary());
+
+    // Query methods that read a whole collection by design
+    private static final Set<String> UNFILTERED = Set.of("UserRepository.findAllWithoutPasswordHash");
+    // Domain types whose indexes BoardOperationLog creates
+    private static final Set<Class<?>> INDEXED_BY_OWNER = Set.of(BoardOperation.class, BoardSnapshot.class);
+
+    @Value("${mongo.indexes.bootstrap:true}")
+    private boolean enabled;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private ListableBeanFactory beanFactory;
+
+    private final List<Declaration> declarations = List.of(
+            new Declaration(User.class, new Index().on("email", Sort.Direction.ASC).unique(),
+                    "UserRepository.findByEmail"),
+            new Declaration(User.class, new Index().on("email", Sort.Direction.ASC).named("email_ci")
+                    .collation(CASE_INSENSITIVE_COLLATION), "UserRepository.findByEmailIgnoreCase"),
+            new Declaration(User.class, new Index().on("displayName", Sort.Direction.ASC),
+                    "UserRepository.findByDisplayName"),
+            new Declaration(User.class, new Index().on("displayName", Sort.Direction.ASC).named("displayName_ci")
+                    .collation(CASE_INSENSITIVE_COLLATION), "UserRepository.findByDisplayNameIgnoreCase"),
+            new Declaration(User.class, new Index().on("domain", Sort.Direction.ASC),
+                    "UserRepository.countByDomain"),
+            new Declaration(User.class, new Index().on("leadOfDomain", Sort.Direction.ASC).sparse(),
+                    "UserRepository.findByLeadOfDomain"),
+            new Declaration(Project.class, new Index().on("ownerId", Sort.Direction.ASC),
+                    "ProjectRepository.findByOwnerId"),
+            new Declaration(Project.class, new Index().on("collaboratorIds", Sort.Direction.ASC),
+                    "ProjectRepository.findByCollaboratorIdsContaining"),
+            new Declaration(Event.class, new Index().on("isPublic", Sort.Direction.ASC)
+                    .partial(PartialIndexFilter.of(Criteria.where("isPublic").is(true))),
+                    "EventRepository.findByIsPublicTrue", "ReactiveEventRepository.findByIsPublicTrue"),
+            new Declaration(MembershipRequest.class, new Index().on("status", Sort.Direction.ASC),
+                    "MembershipRequestRepository.findByStatus"),
+            new Declaration(Job.class, new Index().on("status", Sort.Direction.ASC).on("type", Sort.Direction.ASC),
+                    "JobRepository.existsByTypeAndStatusIn"),
+            new Declaration(Job.class, new Index().on("createdAt", Sort.Direction.DESC),
+                    "JobRepository.findTop50ByOrderByCreatedAtDesc"),
+            new Declaration(Announcement.class, new Index().on("date", Sort.Direction.DESC),
+                    "AnnouncementRepository.findAllByOrderByDateDesc",
+                    "ReactiveAnnouncementRepository.findAllByOrderByDateDesc"),
+            new Declaration(Attendance.class, new Index().on("date", Sort.Direction.DESC),
+                    "AttendanceRepository.findAllByOrderByDateDesc"),
+            // Usually already served by the retention TTL index on the same key
+            new Declaration(ScheduleEntry.class, new Index().on("date", Sort.Direction.ASC),
+                    "ScheduleRepository.findByDateBetween", "ReactiveScheduleRepository.findByDateBetween"));
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureIndexes() {
+        if (!enabled) {
+            return;
+        }
+        Map<Class<?>, List<IndexInfo>> existing = new HashMap<>();
+        int created = 0;
+        for (Declaration declaration : declarations) {
+            try {
+                IndexOperations indexOps = mongoTemplate.indexOps(declaration.type);
+                List<IndexInfo> indexes = existing.computeIfAbsent(declaration.type, t -> indexOps.getIndexInfo());
+                if (indexes.stream().noneMatch(declaration::matches)) {
+                    indexOps.ensureIndex(declaration.index);
+                    created++;
+                }
+            } catch (DataAccessResourceFailureException e) {
+                log.warn("Could not check indexes, database unavailable: {}", e.getMessage());
+                break;
+            } catch (Exception e) {
+                // Typically duplicate values under a unique index; the query still works, just slower
+                log.warn("Could not create index {} on {} for {}: {}", declaration.index.getIndexKeys().toJson(),
+                        mongoTemplate.getCollectionName(declaration.type), declaration.methods, e.getMessage());
+            }
+        }
+        if (created > 0) {
+            log.info("Created {} missing indexes", created);
+        }
+        Set<String> unindexed = findUnindexedQueryMethods();
+        if (!unindexed.isEmpty()) {
+            log.warn("Repository query methods without a declared index: {}", unindexed);
+        }
+    }
+
+    /**
+     * Query methods of every repository (sync and reactive) that no
+     * declaration covers.
+     */
+    public Set<String> findUnindexedQueryMethods() {
+        Set<String> covered = new TreeSet<>(UNFILTERED);
+        declarations.forEach(declaration -> covered.addAll(declaration.methods));
+
+        Set<String> unindexed = new TreeSet<>();
+        for (String name : beanFactory.getBeanNamesForType(RepositoryFactoryInformation.class, false, false)) {
+            RepositoryInformation info = beanFactory.getBean(name, RepositoryFactoryInformation.class)
+                    .getRepositoryInformation();
+            if (INDEXED_BY_OWNER.contains(info.getDomainType())) {
+                continue;
+            }
+            info.getQueryMethods().forEach(method -> {
+                String id = info.getRepositoryInterface().getSimpleName() + "." + method.getName();
+                if (!covered.contains(id)) {
+                    unindexed.add(id);
+                }
+            });
+        }
+        return unindexed;
+    }
+
+    public Map<String, Object> getDeclarations() {
+        Map<String, Object> byMethod = new LinkedHashMap<>();
+        for (Declaration declaration : declarations) {
+            String collection = mongoTemplate.getCollectionName(declaration.type);
+            for (String method : declaration.methods) {
+                byMethod.put(method, collection + " " + declaration.index.getIndexKeys().toJson());
+            }
+        }
+        return byMethod;
+    }
+
+    private static class Declaration {
+        private final Class<?> type;
+        private final Index index;
+        private final List<String> methods;
+
+        Declaration(Class<?> type, Index index, String... methods) {
+            this.type = type;
+            this.index = index;
+            this.methods = List.of(methods);
+        }
+
+        boolean matches(IndexInfo info) {
+            Document keys = index.getIndexKeys();
+            List<String> fields = new ArrayList<>(keys.keySet());
+            if (info.getIndexFields().size() != fields.size()) {
+                return false;
+            }
+            for (int i = 0; i < fields.size(); i++) {
+                IndexField field = info.getIndexFields().get(i);
+                Sort.Direction direction = Objects.equals(keys.get(fields.get(i)), -1) ? Sort.Direction.DESC
+                        : Sort.Direction.ASC;
+                if (!field.getKey().equals(fields.get(i)) || field.getDirection() != direction) {
+                    return false;
+                }
+            }
+            Document collation = index.getIndexOptions().get("collation", Document.class);
+            Object locale = collation != null ? collation.get("locale") : null;
+            return Objects.equals(locale, info.getCollation().map(c -> c.get("locale")).orElse(null));
+        }
+    }
+}
@@ -0,0 +1,330 @@
+package com.snp.backend.service;
+
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedClass;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingFile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Short JFR recordings of this JVM, summarized for the admin API so GC
+ * pressure and lock contention can be diagnosed in production without
+ * attaching a profiler.
+ *
+ * A recording samples allocations (jdk.ObjectAllocationSample, throttled to
+ * {@code diagnostics.jfr.allocation-throttle}), contended monitors and parked
+ * lock acquisitions above {@code diagnostics.jfr.lock-threshold-ms}, and GC
+ * pauses. The summary ranks allocation sites and contended locks by the first
+ * stack frame outside the JDK, plus the subset whose stacks pass through the
+ * "focus" classes, by default the board relay and the simple broker. JFR
+ * keeps the innermost 64 frames unless the JVM is started with
+ * -XX:FlightRecorderOptions:stackdepth=N (the Docker image uses 128), so
+ * callers deep in a stack may be cut off.
+ *
+ * One recording runs at a time; the file is deleted once summarized.
+ */
+@Service
+public class JfrDiagnosticsService {
+
+    private static final Logger log = LoggerFactory.getLogger(JfrDiagnosticsService.class);
+
+    // The relay: its controller and broadcasters (whose frames survive deeper stacks), then the broker
+    public static final List<String> DEFAULT_FOCUS = List.of(
+            "com.snp.backend.controller.ws.BoardSocketController",
+            "com.snp.backend.service.LocalBoardBroadcaster",
+            "com.snp.backend.service.MongoBoardBroadcaster",
+            "org.springframework.messaging.simp.broker",
+            "org.springframework.web.socket.messaging.StompSubProtocolHandler");
+
+    private static final int TOP = 20;
+
+    // Blockers of threads parked waiting for work or for a result rather than for a lock
+    private static final List<String> IDLE_PARK_BLOCKERS = List.of(
+            "java.util.concurrent.locks.AbstractQueuedSynchronizer$ConditionObject",
+            "java.util.concurrent.locks.AbstractQueuedLongSynchronizer$ConditionObject",
+            "java.util.concurrent.SynchronousQueue", "java.util.concurrent.ForkJoinPool",
+            "java.util.concurrent.CompletableFuture", "java.util.concurrent.FutureTask");
+
+    // Off unless asked for: the admin API has no authentication
+    @Value("${diagnostics.jfr.enabled:false}")
+    private boolean enabled;
+
+    @Value("${diagnostics.jfr.max-seconds:120}")
+    private int maxSeconds;
+
+    @Value("${diagnostics.jfr.allocation-throttle:500/s}")
+    private String allocationThrottle;
+
+    @Value("${diagnostics.jfr.lock-threshold-ms:1}")
+    private long lockThresholdMs;
+
+    private final AtomicBoolean recording = new AtomicBoolean();
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "jfr-diagnostics");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile Map<String, Object> lastSummary;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Records for the given window, then summarizes on a background thread.
+     *
+     * @param focus class or package name prefixes whose allocations and lock
+     *              waits are broken out separately
+     * @throws IllegalStateException if a recording is already running
+     */
+    public CompletableFuture<Map<String, Object>> record(int seconds, List<String> focus) {
+        if (seconds < 1 || seconds > maxSeconds) {
+            throw new IllegalArgumentException("seconds must be between 1 and " + maxSeconds);
+        }
+        if (!recording.compareAndSet(false, true)) {
+            throw new IllegalStateException("A recording is already running");
+        }
+        CompletableFuture<Map<String, Object>> result = new CompletableFuture<>();
+        Recording jfr = new Recording();
+        try {
+            jfr.setName("snp-diagnostics");
+            jfr.setToDisk(true);
+            jfr.enable("jdk.ObjectAllocationSample").with("throttle", allocationThrottle).withStackTrace();
+            jfr.enable("jdk.JavaMonitorEnter").withThreshold(Duration.ofMillis(lockThresholdMs)).withStackTrace();
+            jfr.enable("jdk.ThreadPark").withThreshold(Duration.ofMillis(lockThresholdMs)).withStackTrace();
+            jfr.enable("jdk.GarbageCollection");
+            jfr.start();
+        } catch (RuntimeException e) {
+            jfr.close();
+            recording.set(false);
+            throw e;
+        }
+        Instant started = Instant.now();
+        executor.schedule(() -> {
+            Path file = null;
+            try {
+                jfr.stop();
+                file = Files.createTempFile("snp-diagnostics", ".jfr");
+                jfr.dump(file);
+                Map<String, Object> summary = summarize(file, focus);
+                summary.put("startedAt", started.toString());
+                summary.put("seconds", seconds);
+                lastSummary = summary;
+                result.complete(summary);
+            } catch (Exception e) {
+                log.warn("JFR diagnostics recording failed: {}", e.getMessage());
+                result.completeExceptionally(e);
+            } finally {
+                jfr.close();
+                if (file != null) {
+                    file.toFile().delete();
+                }
+                recording.set(false);
+            }
+        }, seconds, TimeUnit.SECONDS);
+        return result;
+    }
+
+    public boolean isRecording() {
+        return recording.get();
+    }
+
+    /**
+     * The summary of the last completed recording, or null if none.
+     */
+    public Map<String, Object> getLastSummary() {
+        return lastSummary;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private Map<String, Object> summarize(Path file, List<String> focus) throws Exception {
+        Tally allocationSites = new Tally();
+        Tally allocatedClasses = new Tally();
+        Tally focusAllocationSites = new Tally();
+        Tally lockSites = new Tally();
+        Tally focusLockSites = new Tally();
+        Map<String, Long> focusBytes = new LinkedHashMap<>();
+        focus.forEach(prefix -> focusBytes.put(prefix, 0L));
+        long allocatedBytes = 0;
+        long gcCount = 0;
+        long gcPauseNanos = 0;
+        long longestPauseNanos = 0;
+
+        try (RecordingFile events = new RecordingFile(file)) {
+            while (events.hasMoreEvents()) {
+                RecordedEvent event = events.readEvent();
+                switch (event.getEventType().getName()) {
+                    case "jdk.ObjectAllocationSample": {
+                        long weight = event.getLong("weight");
+                        RecordedClass type = event.getClass("objectClass");
+                        String site = site(event.getStackTrace());
+                        allocatedBytes += weight;
+                        allocationSites.add(site, weight, 1);
+                        allocatedClasses.add(type != null ? type.getName() : "unknown", weight, 1);
+                        String matched = focus(event.getStackTrace(), focus);
+                        if (matched != null) {
+                            focusBytes.merge(matched, weight, Long::sum);
+                            focusAllocationSites.add(site + " (" + (type != null ? type.getName() : "?") + ")",
+                                    weight, 1);
+                        }
+                        break;
+                    }
+                    case "jdk.JavaMonitorEnter":
+                    case "jdk.ThreadPark": {
+                        String lock = lockClass(event);
+                        if (lock == null) {
+                            break; // A thread waiting for work, not for a lock
+                        }
+                        String key = lock + " at " + site(event.getStackTrace());
+                        long nanos = event.getDuration().toNanos();
+                        lockSites.add(key, nanos, 1);
+                        if (focus(event.getStackTrace(), focus) != null) {
+                            focusLockSites.add(key, nanos, 1);
+                        }
+                        break;
+                    }
+                    case "jdk.GarbageCollection": {
+                        gcCount++;
+                        gcPauseNanos += event.getDuration("sumOfPauses").toNanos();
+                        longestPauseNanos = Math.max(longestPauseNanos, event.getDuration("longestPause").toNanos());
+                        break;
+                    }
+                    default:
+                        break;
+                }
+            }
+        }
+
+        Map<String, Object> allocations = new LinkedHashMap<>();
+        allocations.put("sampledBytes", allocatedBytes);
+        allocations.put("topSites", allocationSites.top("site", "bytes"));
+        allocations.put("topClasses", allocatedClasses.top("class", "bytes"));
+        allocations.put("focusBytes", focusBytes);
+        allocations.put("focusSites", focusAllocationSites.top("site", "bytes"));
+
+        Map<String, Object> locks = new LinkedHashMap<>();
+        locks.put("thresholdMs", lockThresholdMs);
+        locks.put("topSites", toMillis(lockSites.top("lock", "waitNanos")));
+        locks.put("focusSites", toMillis(focusLockSites.top("lock", "waitNanos")));
+
+        Map<String, Object> gc = new LinkedHashMap<>();
+        gc.put("collections", gcCount);
+        gc.put("totalPauseMs", gcPauseNanos / 1_000_000.0);
+        gc.put("longestPauseMs", longestPauseNanos / 1_000_000.0);
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("focus", focus);
+        summary.put("allocations", allocations);
+        summary.put("locks", locks);
+        summary.put("gc", gc);
+        return summary;
+    }
+
+    // The lock a thread blocked on, or null when it parked waiting for work (queue take, condition wait)
+    private static String lockClass(RecordedEvent event) {
+        if (event.getEventType().getName().equals("jdk.JavaMonitorEnter")) {
+            RecordedClass monitor = event.getClass("monitorClass");
+            return monitor != null ? monitor.getName() : "unknown";
+        }
+        RecordedClass parked = event.getClass("parkedClass");
+        if (parked == null || IDLE_PARK_BLOCKERS.stream().anyMatch(parked.getName()::startsWith)) {
+            return null;
+        }
+        return parked.getName();
+    }
+
+    // First frame outside the JDK: the code that asked for the allocation or lock
+    private static String site(RecordedStackTrace stackTrace) {
+        if (stackTrace == null || stackTrace.getFrames().isEmpty()) {
+            return "unknown";
+        }
+        for (RecordedFrame frame : stackTrace.getFrames()) {
+            String type = frame.getMethod().getType().getName();
+            if (!type.startsWith("java.") && !type.startsWith("jdk.") && !type.startsWith("sun.")) {
+                return frame(frame);
+            }
+        }
+        return frame(stackTrace.getFrames().get(0));
+    }
+
+    private static String frame(RecordedFrame frame) {
+        String name = frame.getMethod().getType().getName() + "." + frame.getMethod().getName();
+        return frame.getLineNumber() > 0 ? name + ":" + frame.getLineNumber() : name;
+    }
+
+    // The first focus prefix with a frame on the stack, or null
+    private static String focus(RecordedStackTrace stackTrace, List<String> focus) {
+        if (stackTrace == null || focus.isEmpty()) {
+            return null;
+        }
+        for (RecordedFrame frame : stackTrace.getFrames()) {
+            String type = frame.getMethod().getType().getName();
+            for (String prefix : focus) {
+                if (type.startsWith(prefix)) {
+                    return prefix;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static List<Map<String, Object>> toMillis(List<Map<String, Object>> rows) {
+        for (Map<String, Object> row : rows) {
+            row.put("waitMs", (Long) row.remove("waitNanos") / 1_000_000.0);
+        }
+        return rows;
+    }
+
+    private static class Tally {
+        private final Map<String, long[]> totals = new HashMap<>();
+
+        void add(String key, long amount, long count) {
+            long[] total = totals.computeIfAbsent(key, k -> new long[2]);
+            total[0] += amount;
+            total[1] += count;
+        }
+
+        List<Map<String, Object>> top(String keyName, String amountName) {
+            List<Map<String, Object>> rows = new ArrayList<>();
+            totals.entrySet().stream()
+                    .sorted(Comparator.comparingLong((Map.Entry<String, long[]> entry) -> entry.getValue()[0])
+                            .reversed())
+                    .limit(TOP)
+                    .forEach(entry -> {
+                        Map<String, Object> row = new LinkedHashMap<>();
+                        row.put(keyName, entry.getKey());
+                        row.put(amountName, entry.getValue()[0]);
+                        row.put("samples", entry.getValue()[1]);
+                        rows.add(row);
+                    });
+            return rows;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.snp.backend.service;
+
+import com.snp.backend.model.Job;
+
+/**
+ * A chunked, resumable background job type run by {@link JobService}.
+ *
+ * Each call to {@link #processChunk(Job)} should do a bounded amount of work
+ * starting after {@link Job#getCheckpoint()}, then advance the checkpoint and
+ * the processed count. The job is persisted and checked for cancellation
+ * between chunks.
+ */
+public interface JobHandler {
+
+    String getType();
+
+    /**
+     * Estimated number of items the job will process, or null if unknown.
+     */
+    default Long estimateTotal(Job job) {
+        return null;
+    }
+
+    /**
+     * Processes the next chunk.
+     *
+     * @return true if more work remains
+     */
+    boolean processChunk(Job job) throws Exception;
+
+    /**
+     * Pause between chunks, to throttle load on Mongo.
+     */
+    default long chunkPauseMillis() {
+        return 0;
+    }
+
+    /**
+     * Called once the job has reached a final status.
+     */
+    default void onFinished(Job job) {
+    }
+}
@@ -0,0 +1,393 @@
+package com.snp.backend.service;
+
+import com.snp.backend.model.Job;
+import com.snp.backend.repository.JobRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Runs {@link JobHandler}s chunk by chunk on the bounded job executor, keeping
+ * the job document in Mongo up to date so progress survives restarts and can be
+ * polled or cancelled from the admin endpoints.
+ *
+ * With several instances, a job runs on the one holding its lease: claimed
+ * with an atomic findAndModify, renewed with every checkpoint and taken over
+ * by another instance once it has expired for {@code jobs.lease-seconds}.
+ * The job document is only changed through $set updates, so a concurrent
+ * cancel request is never overwritten.
+ */
+@Service
+public class JobService {
+
+    private static final Logger log = LoggerFactory.getLogger(JobService.class);
+
+    private static final Set<Job.Status> ACTIVE = EnumSet.of(Job.Status.QUEUED, Job.Status.RUNNING);
+
+    @Autowired
+    private JobRepository jobRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private ThreadPoolTaskExecutor jobExecutor;
+
+    @Value("${jobs.history-retention-days:7}")
+    private long historyRetentionDays;
+
+    @Value("${jobs.lease-seconds:120}")
+    private long leaseSeconds;
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    // Jobs waiting in or running on this instance's executor, so the orphan scan doesn't queue them twice
+    private final Set<String> local = ConcurrentHashMap.newKeySet();
+
+    // Resolved lazily: handlers may themselves submit jobs
+    @Autowired
+    private ObjectProvider<JobHandler> handlers;
+
+    public Optional<Job> getJob(String id) {
+        return jobRepository.findById(id);
+    }
+
+    public List<Job> getRecentJobs() {
+        return jobRepository.findTop50ByOrderByCreatedAtDesc();
+    }
+
+    public boolean isActive(String type) {
+        return jobRepository.existsByTypeAndStatusIn(type, ACTIVE);
+    }
+
+    /**
+     * Persists a new job and queues it for execution.
+     *
+     * @throws IllegalArgumentException if no handler exists for the type
+     * @throws IllegalStateException    if a job of this type is already active or
+     *                                  the job queue is full
+     */
+    public Job submit(String type, Map<String, String> params) {
+        if (findHandler(type) == null) {
+            throw new IllegalArgumentException("Unknown job type: " + type);
+        }
+        if (isActive(type)) {
+            throw new IllegalStateException("A " + type + " job is already running");
+        }
+
+        Job job = jobRepository.save(new Job(type, params));
+        try {
+            enqueue(job.getId());
+        } catch (TaskRejectedException e) {
+            Instant now = Instant.now();
+            mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(job.getId())), new Update()
+                    .set("status", Job.Status.FAILED)
+                    .set("error", "Job queue is full")
+                    .set("finishedAt", now)
+                    .set("updatedAt", now), Job.class);
+            throw new IllegalStateException("Job queue is full");
+        }
+        return job;
+    }
+
+    /**
+     * Queues another run of a recurring job. Every run reuses one document,
+     * with the id "recurring-" + type, so a job that runs every few minutes
+     * keeps a single entry in the job history instead of burying the others.
+     *
+     * @return the queued job, or empty if a job of this type is still active
+     * @throws IllegalArgumentException if no handler exists for the type
+     * @throws IllegalStateException    if the job queue is full
+     */
+    public Optional<Job> submitRecurring(String type) {
+        if (findHandler(type) == null) {
+            throw new IllegalArgumentException("Unknown job type: " + type);
+        }
+        if (isActive(type)) {
+            return Optional.empty();
+        }
+        String id = "recurring-" + type;
+        Instant now = Instant.now();
+        Query finished = Query.query(Criteria.where("_id").is(id).and("status").nin(ACTIVE));
+        Job job = mongoTemplate.findAndModify(finished, new Update()
+                .set("status", Job.Status.QUEUED)
+                .set("processed", 0L)
+                .set("runStartProcessed", 0L)
+                .set("cancelRequested", false)
+                .set("updatedAt", now)
+                .unset("checkpoint")
+                .unset("total")
+                .unset("error")
+                .unset("startedAt")
+                .unset("finishedAt")
+                .unset("owner")
+                .unset("leaseExpiresAt"), FindAndModifyOptions.options().returnNew(true), Job.class);
+        if (job == null) {
+            if (jobRepository.existsById(id)) {
+                return Optional.empty(); // Still running
+            }
+            job = new Job(type, Collections.emptyMap());
+            job.setId(id);
+            try {
+                job = mongoTemplate.insert(job);
+            } catch (DuplicateKeyException e) {
+                return Optional.empty(); // Another instance queued it first
+            }
+        }
+        try {
+            enqueue(job.getId());
+        } catch (TaskRejectedException e) {
+            // Left QUEUED without a lease, so the orphan scan retries it
+            throw new IllegalStateException("Job queue is full");
+        }
+        return Optional.of(job);
+    }
+
+    /**
+     * Requests cancellation. Queued jobs are cancelled immediately, running jobs
+     * stop after their current chunk.
+     */
+    public Optional<Job> cancel(String id) {
+        Query query = Query.query(Criteria.where("_id").is(id).and("status").in(ACTIVE));
+        Job job = mongoTemplate.findAndModify(query, new Update().set("cancelRequested", true),
+                FindAndModifyOptions.options().returnNew(true), Job.class);
+        if (job == null) {
+            return jobRepository.findById(id);
+        }
+
+        if (job.getStatus() == Job.Status.QUEUED) {
+            Query queued = Query.query(Criteria.where("_id").is(id).and("status").is(Job.Status.QUEUED));
+            Job cancelled = mongoTemplate.findAndModify(queued, new Update()
+                    .set("status", Job.Status.CANCELLED)
+                    .set("finishedAt", Instant.now()), FindAndModifyOptions.options().returnNew(true), Job.class);
+            if (cancelled != null) {
+                return Optional.of(cancelled);
+            }
+        }
+        return Optional.of(job);
+    }
+
+    // Jobs left QUEUED or RUNNING by a previous process continue from their checkpoint
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterruptedJobs() {
+        try {
+            // Finished jobs are kept for a while for inspection, then expired
+            mongoTemplate.indexOps(Job.class).ensureIndex(new Index()
+                    .on("finishedAt", Sort.Direction.ASC)
+                    .named("finishedAt_ttl")
+                    .expire(Duration.ofDays(historyRetentionDays)));
+        } catch (Exception e) {
+            log.warn("Could not create TTL index on job history: {}", e.getMessage());
+        }
+        resumeOrphanedJobs();
+    }
+
+    /**
+     * Queues active jobs that no instance holds a lease on: interrupted by a
+     * restart or crash, or never started because their queue was lost.
+     */
+    @Scheduled(fixedDelayString = "${jobs.orphan-scan-interval-ms:60000}",
+            initialDelayString = "${jobs.orphan-scan-interval-ms:60000}")
+    public void resumeOrphanedJobs() {
+        List<Job> orphaned;
+        try {
+            orphaned = mongoTemplate.find(Query.query(Criteria.where("status").in(ACTIVE)
+                    .orOperator(Criteria.where("leaseExpiresAt").is(null),
+                            Criteria.where("leaseExpiresAt").lt(Instant.now()))), Job.class);
+        } catch (Exception e) {
+            // Don't fail startup; the next scan picks them up
+            log.warn("Could not load interrupted jobs: {}", e.getMessage());
+            return;
+        }
+
+        for (Job job : orphaned) {
+            if (local.contains(job.getId())) {
+                continue;
+            }
+            try {
+                log.info("Resuming job {} ({}) from checkpoint {}", job.getId(), job.getType(), job.getCheckpoint());
+                enqueue(job.getId());
+            } catch (TaskRejectedException e) {
+                log.warn("Could not resume job {}: job queue is full", job.getId());
+            }
+        }
+    }
+
+    private void enqueue(String jobId) {
+        local.add(jobId);
+        try {
+            jobExecutor.execute(() -> {
+                try {
+                    execute(jobId);
+                } finally {
+                    local.remove(jobId);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            local.remove(jobId);
+            throw e;
+        }
+    }
+
+    private JobHandler findHandler(String type) {
+        return handlers.orderedStream().filter(h -> h.getType().equals(type)).findFirst().orElse(null);
+    }
+
+    private void execute(String jobId) {
+        Job job = claim(jobId);
+        if (job == null) {
+            return; // Finished, or another instance holds the lease
+        }
+
+        JobHandler handler = findHandler(job.getType());
+        if (handler == null) {
+            job.setError("No handler for job type " + job.getType());
+            finish(job, Job.Status.FAILED, null);
+            return;
+        }
+
+        if (job.isCancelRequested()) {
+            finish(job, Job.Status.CANCELLED, handler);
+            return;
+        }
+
+        job.setStatus(Job.Status.RUNNING);
+        job.setStartedAt(Instant.now());
+        job.setRunStartProcessed(job.getProcessed());
+        try {
+            if (job.getTotal() == null) {
+                job.setTotal(handler.estimateTotal(job));
+            }
+            if (update(job, new Update()
+                    .set("status", job.getStatus())
+                    .set("startedAt", job.getStartedAt())
+                    .set("runStartProcessed", job.getRunStartProcessed())
+                    .set("total", job.getTotal())) == null) {
+                return;
+            }
+
+            while (true) {
+                boolean more = handler.processChunk(job);
+
+                Job stored = saveProgress(job);
+                if (stored == null) {
+                    log.warn("Job {} ({}) lost its lease; another instance continues it", jobId, job.getType());
+                    return;
+                }
+                if (stored.isCancelRequested()) {
+                    job.setCancelRequested(true);
+                    finish(job, Job.Status.CANCELLED, handler);
+                    return;
+                }
+                if (!more) {
+                    finish(job, Job.Status.COMPLETED, handler);
+                    return;
+                }
+
+                long pause = handler.chunkPauseMillis();
+                if (pause > 0) {
+                    Thread.sleep(pause);
+                }
+            }
+        } catch (InterruptedException e) {
+            // Shutting down: leave the job RUNNING so it resumes once the lease expires
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.error("Job {} ({}) failed", jobId, job.getType(), e);
+            job.setError(e.getMessage());
+            finish(job, Job.Status.FAILED, handler);
+        }
+    }
+
+    /**
+     * Takes the lease on an active job that no instance holds.
+     *
+     * @return the job, or null if it is finished or leased elsewhere
+     */
+    private Job claim(String jobId) {
+        Instant now = Instant.now();
+        Query query = Query.query(Criteria.where("_id").is(jobId).and("status").in(ACTIVE)
+                .orOperator(Criteria.where("leaseExpiresAt").is(null), Criteria.where("leaseExpiresAt").lt(now)));
+        Update update = new Update()
+                .set("owner", nodeId)
+                .set("leaseExpiresAt", now.plusSeconds(leaseSeconds));
+        return mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true), Job.class);
+    }
+
+    /**
+     * Applies the update if this instance still holds the job's lease,
+     * renewing it.
+     *
+     * @return the stored job, or null if the lease was lost
+     */
+    private Job update(Job job, Update update) {
+        return mongoTemplate.findAndModify(owned(job), update.set("leaseExpiresAt",
+                Instant.now().plusSeconds(leaseSeconds)), FindAndModifyOptions.options().returnNew(true), Job.class);
+    }
+
+    private Query owned(Job job) {
+        return Query.query(Criteria.where("_id").is(job.getId()).and("owner").is(nodeId));
+    }
+
+    // Checkpoints progress; the stored job tells whether cancellation was requested meanwhile
+    private Job saveProgress(Job job) {
+        job.setUpdatedAt(Instant.now());
+        return update(job, new Update()
+                .set("checkpoint", job.getCheckpoint())
+                .set("processed", job.getProcessed())
+                .set("total", job.getTotal())
+                .set("updatedAt", job.getUpdatedAt()));
+    }
+
+    private void finish(Job job, Job.Status status, JobHandler handler) {
+        job.setStatus(status);
+        job.setFinishedAt(Instant.now());
+        job.setUpdatedAt(job.getFinishedAt());
+        Update update = new Update()
+                .set("status", status)
+                .set("error", job.getError())
+                .set("checkpoint", job.getCheckpoint())
+                .set("processed", job.getProcessed())
+                .set("finishedAt", job.getFinishedAt())
+                .set("updatedAt", job.getUpdatedAt())
+                .unset("leaseExpiresAt");
+        if (mongoTemplate.updateFirst(owned(job), update, Job.class).getMatchedCount() == 0) {
+            return; // Lost the lease; the new owner finishes it
+        }
+
+        if (handler != null) {
+            try {
+                handler.onFinished(job);
+            } catch (Exception e) {
+                log.error("Error in onFinished for job {}", job.getId(), e);
+            }
+        }
+    }
+}
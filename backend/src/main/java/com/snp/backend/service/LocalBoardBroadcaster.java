@@ -0,0 +1,29 @@
+package com.snp.backend.service;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+
+/**
+ * Single-instance broadcaster: delivers straight to this node's simple broker.
+ */
+@Service
+@ConditionalOnProperty(name = "websocket.cluster.mode", havingValue = "local", matchIfMissing = true)
+public class LocalBoardBroadcaster implements BoardBroadcaster {
+
+    private final SimpMessagingTemplate messagingTemplate;
+
+    public LocalBoardBroadcaster(SimpMessagingTemplate messagingTemplate) {
+        this.messagingTemplate = messagingTemplate;
+    }
+
+    @Override
+    public void broadcast(String destination, Object payload) {
+        messagingTemplate.convertAndSend(destination, payload);
+    }
+
+    @Override
+    public void broadcastJson(String destination, byte[] json) {
+        messagingTemplate.send(destination, BoardBroadcaster.jsonMessage(json));
+    }
+}
@@ -0,0 +1,46 @@
+package com.snp.backend.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Rate limits debug logging on hot paths. Each call site (a name such as
+ * "votePoll") may log at most {@code logging.sampling.max-per-second} times
+ * per second; the rest of its calls are skipped. Check the level first so a
+ * disabled logger costs nothing:
+ *
+ * <pre>
+ * boolean trace = log.isDebugEnabled() &amp;&amp; logSampling.sample("votePoll");
+ * </pre>
+ */
+@Component
+public class LogSampling {
+
+    @Value("${logging.sampling.max-per-second:5}")
+    private int maxPerSecond;
+
+    private final Map<String, Window> windows = new ConcurrentHashMap<>();
+
+    public boolean sample(String site) {
+        return windows.computeIfAbsent(site, s -> new Window()).admit(maxPerSecond);
+    }
+
+    private static class Window {
+        private final AtomicLong second = new AtomicLong();
+        private final AtomicInteger count = new AtomicInteger();
+
+        boolean admit(int limit) {
+            long now = System.nanoTime() / 1_000_000_000L;
+            long current = second.get();
+            if (now != current && second.compareAndSet(current, now)) {
+                count.set(0);
+            }
+            return count.incrementAndGet() <= limit;
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package com.snp.backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.CursorType;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.InsertManyOptions;
+import com.mongodb.client.model.Sorts;
+import com.snp.backend.model.ws.NodeDelta;
+import com.snp.backend.model.ws.NodeMessage;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.CollectionOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Multi-instance broadcaster backed by a capped Mongo collection.
+ *
+ * Every broadcast is delivered to the local broker immediately and queued for
+ * the capped collection, tagged with this node's id. A publisher thread writes
+ * the queue in batches, so the inbound channel never waits on Mongo; when more
+ * than {@code websocket.cluster.mongo.publish-queue} messages are waiting, new
+ * ones reach local subscribers only. Each node tails the collection with a
+ * tailable-await cursor and relays messages from other nodes to its own
+ * subscribers, so users connected to different instances see each other's
+ * board traffic. Payloads are serialized once and relayed as JSON bytes.
+ *
+ * Relayed node edits are also applied to this node's copy of the board
+ * (BoardMergeService.applyRemote), so undo, deltas and the board clock see
+ * edits merged elsewhere.
+ */
+@Service
+@ConditionalOnProperty(name = "websocket.cluster.mode", havingValue = "mongo")
+public class MongoBoardBroadcaster implements BoardBroadcaster {
+
+    private static final Logger log = LoggerFactory.getLogger(MongoBoardBroadcaster.class);
+
+    private static final TypeReference<Map<String, Object>> FIELDS = new TypeReference<>() {
+    };
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final MongoTemplate mongoTemplate;
+    private final ObjectMapper objectMapper;
+    // Lazy: the merge service broadcasts through this bean
+    private final ObjectProvider<BoardMergeService> mergeService;
+    private final LogSampling logSampling;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final AtomicLong dropped = new AtomicLong();
+
+    @Value("${websocket.cluster.mongo.collection:board_events}")
+    private String collectionName;
+
+    @Value("${websocket.cluster.mongo.size-bytes:16777216}")
+    private long cappedSizeBytes;
+
+    @Value("${websocket.cluster.mongo.publish-queue:10000}")
+    private int publishQueueCapacity;
+
+    @Value("${websocket.cluster.mongo.publish-batch:500}")
+    private int publishBatchSize;
+
+    private BlockingQueue<Document> outbox;
+    private volatile boolean running;
+    private Thread tailer;
+    private Thread publisher;
+
+    public MongoBoardBroadcaster(SimpMessagingTemplate messagingTemplate, MongoTemplate mongoTemplate,
+            ObjectMapper objectMapper, ObjectProvider<BoardMergeService> mergeService, LogSampling logSampling) {
+        this.messagingTemplate = messagingTemplate;
+        this.mongoTemplate = mongoTemplate;
+        this.objectMapper = objectMapper;
+        this.mergeService = mergeService;
+        this.logSampling = logSampling;
+    }
+
+    @PostConstruct
+    public void init() {
+        outbox = new ArrayBlockingQueue<>(publishQueueCapacity);
+    }
+
+    @Override
+    public void broadcast(String destination, Object payload) {
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot serialize board message", e);
+        }
+        broadcastJson(destination, json);
+    }
+
+    @Override
+    public void broadcastJson(String destination, byte[] json) {
+        messagingTemplate.send(destination, BoardBroadcaster.jsonMessage(json));
+
+        Document event = new Document("node", nodeId)
+                .append("destination", destination)
+                .append("payload", new String(json, StandardCharsets.UTF_8));
+        if (!outbox.offer(event)) {
+            // Local subscribers already have the message; remote nodes miss this one
+            long total = dropped.incrementAndGet();
+            if (logSampling.sample("clusterPublish")) {
+                log.warn("Board cluster publish queue full, {} messages not sent to other nodes", total);
+            }
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        try {
+            if (!mongoTemplate.collectionExists(collectionName)) {
+                mongoTemplate.createCollection(collectionName, CollectionOptions.empty().capped().size(cappedSizeBytes));
+            }
+        } catch (Exception e) {
+            // Another node created it first, or Mongo is unreachable and the tailer keeps retrying
+            log.debug("Could not create {}: {}", collectionName, e.getMessage());
+        }
+
+        running = true;
+        publisher = new Thread(this::publishLoop, "board-cluster-publisher");
+        publisher.setDaemon(true);
+        publisher.start();
+        tailer = new Thread(this::tailLoop, "board-cluster-tailer");
+        tailer.setDaemon(true);
+        tailer.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (publisher != null) {
+            publisher.interrupt();
+        }
+        if (tailer != null) {
+            tailer.interrupt();
+        }
+    }
+
+    private void publishLoop() {
+        MongoCollection<Document> collection = mongoTemplate.getCollection(collectionName);
+        List<Document> batch = new ArrayList<>(publishBatchSize);
+        while (running) {
+            try {
+                batch.add(outbox.take());
+                outbox.drainTo(batch, publishBatchSize - 1);
+                collection.insertMany(batch, new InsertManyOptions().ordered(false));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.warn("Failed to publish {} board messages to cluster: {}", batch.size(), e.getMessage());
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void tailLoop() {
+        MongoCollection<Document> collection = mongoTemplate.getCollection(collectionName);
+        // Where to resume after reopening the cursor, as a position in the collection's
+        // natural (insertion) order. _id values come from each writer's clock, so
+        // "_id > lastSeen" would skip messages from a node whose clock runs behind.
+        ObjectId lastSeen = latestId(collection);
+
+        while (running) {
+            boolean skipping = lastSeen != null;
+            // Never our own messages; lastSeen isn't either, as it's from another node or a previous run
+            try (MongoCursor<Document> cursor = collection.find(Filters.ne("node", nodeId))
+                    .cursorType(CursorType.TailableAwait)
+                    .noCursorTimeout(true)
+                    .maxAwaitTime(1, TimeUnit.SECONDS)
+                    .iterator()) {
+                while (running) {
+                    Document event = cursor.tryNext();
+                    if (event == null) {
+                        if (cursor.getServerCursor() == null) {
+                            break; // Dead cursor (e.g. empty collection), reopen
+                        }
+                        if (skipping) {
+                            // Read to the end without meeting lastSeen: it was overwritten while we were away
+                            log.warn("Board cluster tailer fell behind the capped collection; messages were missed");
+                            skipping = false;
+                        }
+                        continue;
+                    }
+                    ObjectId id = event.getObjectId("_id");
+                    if (skipping) {
+                        skipping = !id.equals(lastSeen);
+                        continue;
+                    }
+                    lastSeen = id;
+                    relay(event);
+                }
+            } catch (Exception e) {
+                if (running) {
+                    log.warn("Board cluster tailer error, retrying: {}", e.getMessage());
+                }
+            }
+
+            if (running) {
+                try {
+                    Thread.sleep(1000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private ObjectId latestId(MongoCollection<Document> collection) {
+        Document last = collection.find().sort(Sorts.descending("$natural")).limit(1).first();
+        return last != null ? last.getObjectId("_id") : null;
+    }
+
+    private void relay(Document event) {
+        String destination = event.getString("destination");
+        String payload = event.getString("payload");
+        if (destination == null || payload == null) {
+            return;
+        }
+        messagingTemplate.send(destination, BoardBroadcaster.jsonMessage(payload.getBytes(StandardCharsets.UTF_8)));
+
+        String projectId = BoardDestinations.projectId(destination);
+        if (projectId != null && destination.equals(BoardDestinations.nodes(projectId))) {
+            try {
+                applyRemote(payload);
+            } catch (Exception e) {
+                log.warn("Could not apply relayed board edit on {}: {}", destination, e.getMessage());
+            }
+        }
+    }
+
+    private void applyRemote(String payload) throws JsonProcessingException {
+        Map<String, Object> fields = objectMapper.readValue(payload, FIELDS);
+        if (NodeDelta.TYPE.equals(fields.get("type"))) {
+            mergeService.getObject().applyRemote(objectMapper.convertValue(fields, NodeDelta.class));
+        } else {
+            mergeService.getObject().applyRemote(objectMapper.convertValue(fields, NodeMessage.class));
+        }
+    }
+}
@@ -3,6 +3,8 @@ package com.snp.backend.service;
 import io.github.bucket4j.Bandwidth;
 import io.github.bucket4j.Bucket;
 import io.github.bucket4j.Refill;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
@@ -12,8 +14,23 @@ import java.util.concurrent.ConcurrentHashMap;
 @Service
 public class RateLimitService {
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
 
+    /**
+     * Takes a token from the key's bucket; rejections are counted per limiter
+     * as {@code ratelimit.rejections}.
+     */
+    public boolean tryConsume(String limiter, String key) {
+        if (resolveBucket(key).tryConsume(1)) {
+            return true;
+        }
+        meterRegistry.counter("ratelimit.rejections", "limiter", limiter).increment();
+        return false;
+    }
+
     public Bucket resolveBucket(String key) {
         return buckets.computeIfAbsent(key, this::createNewBucket);
     }
@@ -0,0 +1,121 @@
+package com.snp.backend.service;
+
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the most recently finished spans in memory, so traces can be read
+ * from /api/admin/traces without a collector. Spans arrive from Boot's batch
+ * span processor, which exports to every SpanExporter bean; the oldest are
+ * dropped beyond {@code tracing.exporter.memory.max-spans}.
+ */
+@Component
+public class RecentTraceExporter implements SpanExporter {
+
+    @Value("${tracing.exporter.memory.max-spans:2000}")
+    private int maxSpans;
+
+    private final Deque<SpanData> spans = new ArrayDeque<>();
+
+    @Override
+    public synchronized CompletableResultCode export(Collection<SpanData> batch) {
+        if (maxSpans <= 0) {
+            return CompletableResultCode.ofSuccess();
+        }
+        for (SpanData span : batch) {
+            if (spans.size() >= maxSpans) {
+                spans.removeFirst();
+            }
+            spans.addLast(span);
+        }
+        return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public CompletableResultCode flush() {
+        return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public synchronized CompletableResultCode shutdown() {
+        spans.clear();
+        return CompletableResultCode.ofSuccess();
+    }
+
+    /**
+     * The most recent traces, newest first, each with its spans ordered by
+     * start time. Offsets and durations are in milliseconds from the start of
+     * the trace's first span.
+     *
+     * @param nameFilter only traces with a span whose name contains this
+     *                   (ignoring case), or null for all
+     */
+    public List<Map<String, Object>> getTraces(int limit, String nameFilter) {
+        Map<String, List<SpanData>> byTrace = new LinkedHashMap<>();
+        synchronized (this) {
+            Iterator<SpanData> newestFirst = spans.descendingIterator();
+            while (newestFirst.hasNext()) {
+                SpanData span = newestFirst.next();
+                byTrace.computeIfAbsent(span.getTraceId(), id -> new ArrayList<>()).add(span);
+            }
+        }
+
+        String filter = nameFilter != null ? nameFilter.toLowerCase() : null;
+        List<Map<String, Object>> traces = new ArrayList<>();
+        for (Map.Entry<String, List<SpanData>> entry : byTrace.entrySet()) {
+            if (traces.size() >= limit) {
+                break;
+            }
+            List<SpanData> trace = entry.getValue();
+            if (filter != null && trace.stream().noneMatch(span -> span.getName().toLowerCase().contains(filter))) {
+                continue;
+            }
+            trace.sort(Comparator.comparingLong(SpanData::getStartEpochNanos));
+            long start = trace.get(0).getStartEpochNanos();
+            long end = trace.stream().mapToLong(SpanData::getEndEpochNanos).max().orElse(start);
+
+            List<Map<String, Object>> spanViews = new ArrayList<>();
+            for (SpanData span : trace) {
+                Map<String, Object> view = new LinkedHashMap<>();
+                view.put("name", span.getName());
+                view.put("spanId", span.getSpanId());
+                view.put("parentId", span.getParentSpanContext().isValid() ? span.getParentSpanId() : null);
+                view.put("kind", span.getKind().name());
+                view.put("startMs", millis(span.getStartEpochNanos() - start));
+                view.put("durationMs", millis(span.getEndEpochNanos() - span.getStartEpochNanos()));
+                view.put("status", span.getStatus().getStatusCode().name());
+                Map<String, Object> attributes = new HashMap<>();
+                span.getAttributes().forEach((key, value) -> attributes.put(key.getKey(), value));
+                view.put("attributes", attributes);
+                spanViews.add(view);
+            }
+
+            Map<String, Object> view = new LinkedHashMap<>();
+            view.put("traceId", entry.getKey());
+            view.put("root", trace.get(0).getName());
+            view.put("durationMs", millis(end - start));
+            view.put("spans", spanViews);
+            traces.add(view);
+        }
+        return traces;
+    }
+
+    private static double millis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
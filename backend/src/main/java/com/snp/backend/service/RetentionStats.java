@@ -0,0 +1,65 @@
+package com.snp.backend.service;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counters for the retention sweep: documents removed per collection and time
+ * spent per run.
+ */
+public class RetentionStats {
+
+    private final Map<String, AtomicLong> removedByCollection = new ConcurrentHashMap<>();
+    private final AtomicLong runs = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong totalRemoved = new AtomicLong();
+    private final AtomicLong totalTimeNanos = new AtomicLong();
+    private final AtomicLong lastRunRemoved = new AtomicLong();
+    private final AtomicLong lastRunTimeNanos = new AtomicLong();
+    private volatile Instant lastRunAt;
+
+    public void recordRemoved(String collection, long count) {
+        removedByCollection.computeIfAbsent(collection, c -> new AtomicLong()).addAndGet(count);
+    }
+
+    public void recordRun(long removed, long elapsedNanos) {
+        runs.incrementAndGet();
+        totalRemoved.addAndGet(removed);
+        totalTimeNanos.addAndGet(elapsedNanos);
+        lastRunRemoved.set(removed);
+        lastRunTimeNanos.set(elapsedNanos);
+        lastRunAt = Instant.now();
+    }
+
+    public void recordFailure() {
+        failures.incrementAndGet();
+    }
+
+    public long getTotalRemoved() {
+        return totalRemoved.get();
+    }
+
+    public long getTotalTimeNanos() {
+        return totalTimeNanos.get();
+    }
+
+    public Map<String, Object> snapshot() {
+        Map<String, Long> removed = new LinkedHashMap<>();
+        removedByCollection.forEach((collection, count) -> removed.put(collection, count.get()));
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("runs", runs.get());
+        result.put("failures", failures.get());
+        result.put("totalRemoved", totalRemoved.get());
+        result.put("totalTimeMs", TimeUnit.NANOSECONDS.toMillis(totalTimeNanos.get()));
+        result.put("lastRunAt", lastRunAt);
+        result.put("lastRunRemoved", lastRunRemoved.get());
+        result.put("lastRunTimeMs", TimeUnit.NANOSECONDS.toMillis(lastRunTimeNanos.get()));
+        result.put("removedByCollection", removed);
+        return result;
+    }
+}
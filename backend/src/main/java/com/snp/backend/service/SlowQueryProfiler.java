@@ -0,0 +1,314 @@
+package com.snp.backend.service;
+
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import jakarta.annotation.PreDestroy;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Explains slow Mongo commands and reports the ones that scan a collection.
+ *
+ * Registered as a driver command listener (MongoConfig). For each query
+ * command it keeps the filter and the repository method that issued it,
+ * which {@link #callSiteInterceptor} records around every synchronous
+ * repository call. When a command takes longer than
+ * {@code mongo.profiler.slow-ms}, the query is explained on a background
+ * thread, at most once per query shape every
+ * {@code mongo.profiler.explain-interval-ms}, and a COLLSCAN in the winning
+ * plan is logged with the calling method and the filter shape (values
+ * replaced by "?"). Updates, deletes and aggregations are explained as a
+ * find on their filter or leading $match.
+ */
+@Service
+public class SlowQueryProfiler implements CommandListener {
+
+    private static final Logger log = LoggerFactory.getLogger(SlowQueryProfiler.class);
+
+    private static final Set<String> QUERY_COMMANDS = Set.of("find", "count", "distinct", "aggregate", "update",
+            "delete", "findAndModify");
+    private static final int MAX_FINDINGS = 100;
+    private static final int MAX_SHAPES = 1000;
+
+    private static final BsonString PLACEHOLDER = new BsonString("?");
+
+    private static final ThreadLocal<String> CURRENT_METHOD = new ThreadLocal<>();
+
+    @Value("${mongo.profiler.enabled:true}")
+    private boolean enabled;
+
+    @Value("${mongo.profiler.slow-ms:100}")
+    private long slowMs;
+
+    @Value("${mongo.profiler.explain-interval-ms:600000}")
+    private long explainIntervalMs;
+
+    // Resolved lazily: the template depends on the client this listener is registered with
+    @Autowired
+    private ObjectProvider<MongoTemplate> mongoTemplate;
+
+    private final Map<Integer, Pending> pending = new ConcurrentHashMap<>();
+    // Forgetting a shape only means it may be explained again sooner
+    private final Map<String, Long> lastExplained = Collections.synchronizedMap(
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                    return size() > MAX_SHAPES;
+                }
+            });
+    private final Map<String, Map<String, Object>> findings = Collections.synchronizedMap(
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Map<String, Object>> eldest) {
+                    return size() > MAX_FINDINGS;
+                }
+            });
+
+    private final ThreadPoolExecutor explainer = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(64), runnable -> {
+                Thread thread = new Thread(runnable, "mongo-explain");
+                thread.setDaemon(true);
+                return thread;
+            }, new ThreadPoolExecutor.DiscardPolicy());
+
+    private final AtomicLong slowCommands = new AtomicLong();
+    private final AtomicLong explained = new AtomicLong();
+    private final AtomicLong collectionScans = new AtomicLong();
+
+    /**
+     * Advice for repository proxies that makes the invoked method visible to
+     * the commands it runs on the same thread.
+     */
+    public static MethodInterceptor callSiteInterceptor(Class<?> repositoryInterface) {
+        String prefix = repositoryInterface.getSimpleName() + ".";
+        return invocation -> {
+            String previous = CURRENT_METHOD.get();
+            CURRENT_METHOD.set(prefix + invocation.getMethod().getName());
+            try {
+                return invocation.proceed();
+            } finally {
+                CURRENT_METHOD.set(previous);
+            }
+        };
+    }
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        if (!enabled || !QUERY_COMMANDS.contains(event.getCommandName())) {
+            return;
+        }
+        BsonDocument command = event.getCommand();
+        BsonValue collection = command.get(event.getCommandName());
+        if (collection == null || !collection.isString()) {
+            return; // e.g. a database-level aggregate
+        }
+        // Copy just the filter now; the command's buffer is released once it is sent
+        BsonDocument filter = filter(event.getCommandName(), command);
+        BsonValue sort = command.get("sort");
+        pending.put(event.getRequestId(), new Pending(event.getDatabaseName(), collection.asString().getValue(),
+                event.getCommandName(), filter != null ? filter.clone() : new BsonDocument(),
+                sort != null && sort.isDocument() ? sort.asDocument().clone() : null, CURRENT_METHOD.get()));
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        Pending command = pending.remove(event.getRequestId());
+        if (command == null) {
+            return;
+        }
+        long elapsedMs = event.getElapsedTime(TimeUnit.MILLISECONDS);
+        if (elapsedMs < slowMs) {
+            return;
+        }
+        slowCommands.incrementAndGet();
+        String shape = command.collection + " " + command.method() + " " + shapeJson(command.filter);
+        long now = System.currentTimeMillis();
+        synchronized (lastExplained) {
+            Long last = lastExplained.get(shape);
+            if (last != null && now - last < explainIntervalMs) {
+                return;
+            }
+            lastExplained.put(shape, now);
+        }
+        explainer.execute(() -> explain(command, shape, elapsedMs));
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        pending.remove(event.getRequestId());
+    }
+
+    private void explain(Pending command, String shape, long elapsedMs) {
+        try {
+            Document find = new Document("find", command.collection).append("filter", command.filter);
+            if (command.sort != null) {
+                find.append("sort", command.sort);
+            }
+            Document result = mongoTemplate.getObject().getMongoDatabaseFactory()
+                    .getMongoDatabase(command.database)
+                    .runCommand(new Document("explain", find).append("verbosity", "queryPlanner"));
+            explained.incrementAndGet();
+            Document plan = result.get("queryPlanner", Document.class);
+            Object winningPlan = plan != null ? plan.get("winningPlan") : null;
+            List<String> indexes = new ArrayList<>();
+            boolean scan = scan(winningPlan, indexes);
+            if (scan) {
+                collectionScans.incrementAndGet();
+                log.warn("Collection scan on {} by {} ({} took {} ms), filter {}", command.collection,
+                        command.method(), command.commandName, elapsedMs, shapeJson(command.filter));
+            } else {
+                log.info("Slow {} on {} by {} ({} ms) using {}", command.commandName, command.collection,
+                        command.method(), elapsedMs, indexes);
+            }
+            Map<String, Object> finding = new HashMap<>();
+            finding.put("collection", command.collection);
+            finding.put("method", command.method());
+            finding.put("command", command.commandName);
+            finding.put("filter", shapeJson(command.filter));
+            finding.put("elapsedMs", elapsedMs);
+            finding.put("collectionScan", scan);
+            finding.put("indexes", indexes);
+            finding.put("explainedAt", System.currentTimeMillis());
+            findings.put(shape, finding);
+        } catch (Exception e) {
+            log.debug("Could not explain slow {} on {}: {}", command.commandName, command.collection,
+                    e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        explainer.shutdownNow();
+    }
+
+    /**
+     * Slow query shapes explained recently, most recent last.
+     */
+    public List<Map<String, Object>> getFindings() {
+        synchronized (findings) {
+            return new ArrayList<>(findings.values());
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("slowMs", slowMs);
+        stats.put("slowCommands", slowCommands.get());
+        stats.put("explained", explained.get());
+        stats.put("collectionScans", collectionScans.get());
+        stats.put("inFlight", pending.size());
+        return stats;
+    }
+
+    private static BsonDocument filter(String commandName, BsonDocument command) {
+        switch (commandName) {
+            case "find":
+                return document(command.get("filter"));
+            case "count":
+            case "distinct":
+            case "findAndModify":
+                return document(command.get("query"));
+            case "update":
+            case "delete": {
+                BsonValue statements = command.get(commandName.equals("update") ? "updates" : "deletes");
+                if (statements == null || !statements.isArray() || statements.asArray().isEmpty()) {
+                    return null;
+                }
+                return document(statements.asArray().get(0).asDocument().get("q"));
+            }
+            case "aggregate": {
+                BsonValue pipeline = command.get("pipeline");
+                if (pipeline != null && pipeline.isArray() && !pipeline.asArray().isEmpty()) {
+                    return document(pipeline.asArray().get(0).asDocument().get("$match"));
+                }
+                return null;
+            }
+            default:
+                return null;
+        }
+    }
+
+    private static BsonDocument document(BsonValue value) {
+        return value != null && value.isDocument() ? value.asDocument() : null;
+    }
+
+    // The filter with every value replaced by "?", keeping field names and operators. Arrays keep
+    // each distinct element shape once, so an $in of any length is a single "?"
+    private static String shapeJson(BsonDocument filter) {
+        return shape(filter).asDocument().toJson();
+    }
+
+    private static BsonValue shape(BsonValue value) {
+        if (value.isDocument()) {
+            BsonDocument shaped = new BsonDocument();
+            value.asDocument().forEach((key, nested) -> shaped.append(key, shape(nested)));
+            return shaped;
+        }
+        if (value.isArray()) {
+            Set<BsonValue> elements = new LinkedHashSet<>();
+            value.asArray().forEach(nested -> elements.add(shape(nested)));
+            if (elements.isEmpty() || elements.equals(Set.of(PLACEHOLDER))) {
+                return PLACEHOLDER;
+            }
+            return new BsonArray(new ArrayList<>(elements));
+        }
+        return PLACEHOLDER;
+    }
+
+    // Whether the plan tree contains a COLLSCAN stage; collects the index names it uses
+    private static boolean scan(Object stage, List<String> indexes) {
+        if (stage instanceof Document document) {
+            if (document.get("indexName") instanceof String indexName) {
+                indexes.add(indexName);
+            }
+            boolean scan = "COLLSCAN".equals(document.get("stage"));
+            for (Object nested : document.values()) {
+                scan |= scan(nested, indexes);
+            }
+            return scan;
+        }
+        if (stage instanceof List<?> list) {
+            boolean scan = false;
+            for (Object nested : list) {
+                scan |= scan(nested, indexes);
+            }
+            return scan;
+        }
+        return false;
+    }
+
+    private record Pending(String database, String collection, String commandName, BsonDocument filter,
+            BsonDocument sort, String callSite) {
+        String method() {
+            return callSite != null ? callSite : "unknown";
+        }
+    }
+}
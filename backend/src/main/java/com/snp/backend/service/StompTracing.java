@@ -0,0 +1,177 @@
+package com.snp.backend.service;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.handler.invocation.AbstractMethodMessageHandler;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.broker.AbstractBrokerMessageHandler;
+import org.springframework.messaging.support.ExecutorChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+
+/**
+ * Observations (and so trace spans) around STOMP message handling.
+ *
+ * Inbound: one {@code stomp.inbound} span per client SEND or SUBSCRIBE,
+ * around the @MessageMapping method or the broker that handles it. Repository
+ * calls and broadcasts made by the handler become its children.
+ *
+ * Outbound: one {@code stomp.outbound} span per message delivered to a
+ * session, from the moment the broker queues it to the end of the WebSocket
+ * write, so time spent in the outbound executor queue is visible. Its parent
+ * is whatever was current when the broker fanned the message out, typically
+ * the inbound span; the observation rides to the executor thread in a
+ * message header that is never written to the wire.
+ *
+ * Cursor traffic (/app/project.moveCursor and the .cursors topics) is skipped
+ * unless {@code tracing.stomp.cursors} is on: it is by far the most frequent
+ * and the least interesting.
+ */
+@Component
+public class StompTracing {
+
+    private static final String OBSERVATION_HEADER = StompTracing.class.getName() + ".observation";
+    private static final String INBOUND = "stomp.inbound";
+    private static final String OUTBOUND = "stomp.outbound";
+    private static final String CURSOR_MAPPING = "/project.moveCursor";
+
+    @Autowired
+    private ObservationRegistry registry;
+
+    @Value("${tracing.stomp.enabled:true}")
+    private boolean enabled;
+
+    @Value("${tracing.stomp.cursors:false}")
+    private boolean traceCursors;
+
+    private final ExecutorChannelInterceptor inbound = new Inbound();
+    private final ExecutorChannelInterceptor outbound = new Outbound();
+
+    public ExecutorChannelInterceptor inbound() {
+        return inbound;
+    }
+
+    public ExecutorChannelInterceptor outbound() {
+        return outbound;
+    }
+
+    private boolean skipped(String destination) {
+        return !enabled || registry.isNoop() || !traceCursors && destination != null
+                && (destination.endsWith(CURSOR_MAPPING) || BoardDestinations.isCursors(destination));
+    }
+
+    private Observation observation(String name, String destination, Message<?> message) {
+        String pattern = destination != null ? BoardDestinations.pattern(destination) : "none";
+        boolean board = destination != null && BoardDestinations.projectId(destination) != null;
+        return Observation.createNotStarted(name, registry)
+                .contextualName(name.substring("stomp.".length()) + " " + pattern)
+                // Clients pick destinations freely; only board topics are bounded enough for metric tags
+                .lowCardinalityKeyValue("destination", board ? pattern : "other")
+                .highCardinalityKeyValue("stomp.destination", String.valueOf(destination))
+                .highCardinalityKeyValue("stomp.session",
+                        String.valueOf(SimpMessageHeaderAccessor.getSessionId(message.getHeaders())));
+    }
+
+    private static void stop(Observation observation, Exception ex) {
+        if (ex != null) {
+            observation.error(ex);
+        }
+        observation.stop();
+    }
+
+    // Whether this handler is one that acts on the destination, e.g. the @MessageMapping handler for /app
+    private static boolean handles(MessageHandler handler, String destination) {
+        Collection<String> prefixes;
+        if (handler instanceof AbstractMethodMessageHandler<?> methodHandler) {
+            prefixes = methodHandler.getDestinationPrefixes();
+        } else if (handler instanceof AbstractBrokerMessageHandler brokerHandler) {
+            prefixes = brokerHandler.getDestinationPrefixes();
+        } else {
+            return false;
+        }
+        return prefixes.isEmpty() || prefixes.stream().anyMatch(destination::startsWith);
+    }
+
+    private class Inbound implements ExecutorChannelInterceptor {
+        @Override
+        public Message<?> beforeHandle(Message<?> message, MessageChannel channel, MessageHandler handler) {
+            SimpMessageType type = SimpMessageHeaderAccessor.getMessageType(message.getHeaders());
+            String destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+            if ((type == SimpMessageType.MESSAGE || type == SimpMessageType.SUBSCRIBE) && destination != null
+                    && !skipped(destination) && handles(handler, destination)) {
+                observation(INBOUND, destination, message)
+                        .lowCardinalityKeyValue("stomp.type", type.name())
+                        .lowCardinalityKeyValue("stomp.handler", handler.getClass().getSimpleName())
+                        .start()
+                        .openScope();
+            }
+            return message;
+        }
+
+        @Override
+        public void afterMessageHandled(Message<?> message, MessageChannel channel, MessageHandler handler,
+                Exception ex) {
+            Observation.Scope scope = registry.getCurrentObservationScope();
+            if (scope != null && INBOUND.equals(scope.getCurrentObservation().getContext().getName())) {
+                scope.close();
+                stop(scope.getCurrentObservation(), ex);
+            }
+        }
+    }
+
+    private class Outbound implements ExecutorChannelInterceptor {
+        @Override
+        public Message<?> preSend(Message<?> message, MessageChannel channel) {
+            if (SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) != SimpMessageType.MESSAGE) {
+                return message;
+            }
+            String destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+            if (skipped(destination)) {
+                return message;
+            }
+            Observation observation = observation(OUTBOUND, destination, message)
+                    .parentObservation(registry.getCurrentObservation())
+                    .start();
+            MessageHeaderAccessor accessor = MessageHeaderAccessor.getMutableAccessor(message);
+            accessor.setHeader(OBSERVATION_HEADER, observation);
+            return MessageBuilder.createMessage(message.getPayload(), accessor.getMessageHeaders());
+        }
+
+        @Override
+        public void afterSendCompletion(Message<?> message, MessageChannel channel, boolean sent, Exception ex) {
+            // Rejected by a full outbound queue; the handler will never see it
+            if (ex != null && message.getHeaders().get(OBSERVATION_HEADER) instanceof Observation observation) {
+                stop(observation, ex);
+            }
+        }
+
+        @Override
+        public Message<?> beforeHandle(Message<?> message, MessageChannel channel, MessageHandler handler) {
+            if (message.getHeaders().get(OBSERVATION_HEADER) instanceof Observation observation) {
+                observation.openScope();
+            }
+            return message;
+        }
+
+        @Override
+        public void afterMessageHandled(Message<?> message, MessageChannel channel, MessageHandler handler,
+                Exception ex) {
+            if (message.getHeaders().get(OBSERVATION_HEADER) instanceof Observation observation) {
+                Observation.Scope scope = registry.getCurrentObservationScope();
+                if (scope != null && scope.getCurrentObservation() == observation) {
+                    scope.close();
+                }
+                stop(observation, ex);
+            }
+        }
+    }
+}
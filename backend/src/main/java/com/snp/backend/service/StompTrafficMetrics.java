@@ -0,0 +1,80 @@
+package com.snp.backend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Counts STOMP messages per destination as {@code stomp.messages}, tagged
+ * with the direction (inbound SENDs from clients, outbound MESSAGEs to each
+ * subscriber) and the destination with board project ids folded into
+ * {@code {projectId}}. Registered on both client channels.
+ *
+ * Clients can send to arbitrary broker destinations, so after
+ * {@code metrics.stomp.max-destinations} distinct ones the rest are counted
+ * as "other".
+ */
+@Component
+public class StompTrafficMetrics {
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Value("${metrics.stomp.max-destinations:100}")
+    private int maxDestinations;
+
+    private final ChannelInterceptor inbound = new Interceptor("inbound");
+    private final ChannelInterceptor outbound = new Interceptor("outbound");
+
+    public ChannelInterceptor inbound() {
+        return inbound;
+    }
+
+    public ChannelInterceptor outbound() {
+        return outbound;
+    }
+
+    private class Interceptor implements ChannelInterceptor {
+        private final String direction;
+        // By destination pattern; board patterns are constants, so the lookup builds no key
+        private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+        Interceptor(String direction) {
+            this.direction = direction;
+        }
+
+        @Override
+        public Message<?> preSend(Message<?> message, MessageChannel channel) {
+            if (SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) == SimpMessageType.MESSAGE) {
+                count(SimpMessageHeaderAccessor.getDestination(message.getHeaders()));
+            }
+            return message;
+        }
+
+        private void count(String destination) {
+            String pattern = destination != null ? BoardDestinations.pattern(destination) : "none";
+            Counter counter = counters.get(pattern);
+            if (counter == null) {
+                if (counters.size() >= maxDestinations) {
+                    pattern = "other";
+                }
+                String tag = pattern;
+                counter = counters.computeIfAbsent(pattern, k -> Counter.builder("stomp.messages")
+                        .tag("direction", direction)
+                        .tag("destination", tag)
+                        .register(registry));
+            }
+            counter.increment();
+        }
+    }
+}
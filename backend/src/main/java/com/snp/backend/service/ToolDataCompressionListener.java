@@ -0,0 +1,114 @@
+package com.snp.backend.service;
+
+import com.snp.backend.model.Project;
+import org.bson.Document;
+import org.bson.types.Binary;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterLoadEvent;
+import org.springframework.data.mongodb.core.mapping.event.BeforeSaveEvent;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compresses large tool blobs (flowchart, mindmap and timeline data) at rest.
+ *
+ * A blob at or above {@code project.tool-data.compress-threshold-bytes} is
+ * stored as {@code { codec: "gzip", size: <chars>, data: <binary> }} instead
+ * of a string, and expanded back to the string when the project is loaded.
+ * Plain strings are read as before, so existing projects need no migration
+ * and are compressed the next time they are saved. Only saves and loads that
+ * go through the Mongo mapping layer are covered.
+ */
+@Component
+public class ToolDataCompressionListener extends AbstractMongoEventListener<Project> {
+
+    public static final String CODEC_FIELD = "codec";
+    public static final String GZIP = "gzip";
+
+    private static final List<String> TOOL_FIELDS = List.of("flowchartData", "mindmapData", "timelineData");
+
+    @Value("${project.tool-data.compression-enabled:true}")
+    private boolean enabled;
+
+    @Value("${project.tool-data.compress-threshold-bytes:4096}")
+    private int thresholdBytes;
+
+    private final AtomicLong bytesIn = new AtomicLong();
+    private final AtomicLong bytesStored = new AtomicLong();
+
+    @Override
+    public void onBeforeSave(BeforeSaveEvent<Project> event) {
+        Document document = event.getDocument();
+        if (!enabled || document == null) {
+            return;
+        }
+        for (String field : TOOL_FIELDS) {
+            // A char encodes to at most 3 UTF-8 bytes, so shorter strings can't reach the threshold
+            if (document.get(field) instanceof String value && value.length() * 3L >= thresholdBytes) {
+                byte[] raw = value.getBytes(StandardCharsets.UTF_8);
+                if (raw.length < thresholdBytes) {
+                    continue;
+                }
+                byte[] compressed = gzip(raw);
+                if (compressed.length < raw.length) {
+                    document.put(field, new Document(CODEC_FIELD, GZIP)
+                            .append("size", value.length())
+                            .append("data", new Binary(compressed)));
+                    bytesIn.addAndGet(raw.length);
+                    bytesStored.addAndGet(compressed.length);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void onAfterLoad(AfterLoadEvent<Project> event) {
+        Document document = event.getDocument();
+        if (document == null) {
+            return;
+        }
+        // Decoded even when compression is disabled so stored blobs stay readable
+        for (String field : TOOL_FIELDS) {
+            if (document.get(field) instanceof Document encoded && GZIP.equals(encoded.getString(CODEC_FIELD))) {
+                Binary data = encoded.get("data", Binary.class);
+                document.put(field, data != null ? new String(gunzip(data.getData()), StandardCharsets.UTF_8) : null);
+            }
+        }
+    }
+
+    public long getBytesIn() {
+        return bytesIn.get();
+    }
+
+    public long getBytesStored() {
+        return bytesStored.get();
+    }
+
+    private static byte[] gzip(byte[] raw) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(raw);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] gunzip(byte[] compressed) {
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return gzip.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Corrupt compressed tool data", e);
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.snp.backend.service;
+
+import com.snp.backend.model.User;
+import com.snp.backend.repository.UserRepository;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Bounded read-through cache for User lookups by id, email and display name.
+ *
+ * Entries are kept as the mapped Mongo document and converted to a fresh User
+ * on every hit, so callers can mutate and save the result as before. Every
+ * repository save/delete evicts the user through
+ * {@link UserCacheInvalidationListener}; writes that bypass the mapping layer
+ * (bulk updates) must call {@link #evictAll()}.
+ */
+@Service
+public class UserCache {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MongoConverter mongoConverter;
+
+    @Value("${cache.users.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    private final int maxSize;
+
+    // id -> entry, in LRU order
+    private final Map<String, Entry> byId;
+    private final Map<String, String> emailToId = new ConcurrentHashMap<>();
+    private final Map<String, String> displayNameToId = new ConcurrentHashMap<>();
+
+    // Bumped on every eviction, so a load that raced with a write is not cached
+    private final AtomicLong generation = new AtomicLong();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public UserCache(@Value("${cache.users.max-size:10000}") int maxSize) {
+        this.maxSize = maxSize;
+        this.byId = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > UserCache.this.maxSize;
+            }
+        };
+    }
+
+    public Optional<User> findById(String id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        return lookup(id, () -> userRepository.findById(id));
+    }
+
+    public Optional<User> findByEmail(String email) {
+        if (email == null) {
+            return Optional.empty();
+        }
+        return lookup(emailToId.get(email), () -> userRepository.findByEmail(email),
+                user -> email.equals(user.getString("email")));
+    }
+
+    public Optional<User> findByDisplayName(String displayName) {
+        if (displayName == null) {
+            return Optional.empty();
+        }
+        return lookup(displayNameToId.get(displayName), () -> userRepository.findByDisplayName(displayName),
+                user -> displayName.equals(user.getString("displayName")));
+    }
+
+    private Optional<User> lookup(String id, Supplier<Optional<User>> loader) {
+        return lookup(id, loader, user -> true);
+    }
+
+    private Optional<User> lookup(String id, Supplier<Optional<User>> loader,
+            Predicate<Document> stillMatches) {
+        if (id != null) {
+            Entry entry;
+            synchronized (byId) {
+                entry = byId.get(id);
+            }
+            if (entry != null && !entry.isExpired(ttlSeconds) && stillMatches.test(entry.document)) {
+                hits.incrementAndGet();
+                return Optional.of(mongoConverter.read(User.class, entry.document));
+            }
+        }
+
+        misses.incrementAndGet();
+        long loadGeneration = generation.get();
+        Optional<User> loaded = loader.get();
+        loaded.ifPresent(user -> put(user, loadGeneration));
+        return loaded;
+    }
+
+    private void put(User user, long loadGeneration) {
+        if (user.getId() == null) {
+            return;
+        }
+        Document document = new Document();
+        mongoConverter.write(user, document);
+
+        synchronized (byId) {
+            if (generation.get() != loadGeneration) {
+                return;
+            }
+            byId.put(user.getId(), new Entry(document));
+        }
+        if (user.getEmail() != null)
+            emailToId.put(user.getEmail(), user.getId());
+        if (user.getDisplayName() != null)
+            displayNameToId.put(user.getDisplayName(), user.getId());
+
+        // Secondary keys whose user has been dropped from the LRU are pruned lazily
+        if (emailToId.size() > maxSize * 2) {
+            pruneKeys();
+        }
+    }
+
+    private void pruneKeys() {
+        synchronized (byId) {
+            emailToId.values().removeIf(id -> !byId.containsKey(id));
+            displayNameToId.values().removeIf(id -> !byId.containsKey(id));
+        }
+    }
+
+    public void evict(String id) {
+        synchronized (byId) {
+            generation.incrementAndGet();
+            if (byId.remove(id) != null) {
+                evictions.incrementAndGet();
+            }
+        }
+        // Stale email/displayName keys now point to a missing entry and fall through to Mongo
+    }
+
+    public void evictAll() {
+        synchronized (byId) {
+            generation.incrementAndGet();
+            evictions.addAndGet(byId.size());
+            byId.clear();
+            emailToId.clear();
+            displayNameToId.clear();
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        long h = hits.get();
+        long m = misses.get();
+        int size;
+        synchronized (byId) {
+            size = byId.size();
+        }
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", size);
+        stats.put("maxSize", maxSize);
+        stats.put("hits", h);
+        stats.put("misses", m);
+        stats.put("hitRate", h + m == 0 ? 0.0 : (double) h / (h + m));
+        stats.put("evictions", evictions.get());
+        return stats;
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    private static class Entry {
+        private final Document document;
+        private final long loadedAtMillis = System.currentTimeMillis();
+
+        Entry(Document document) {
+            this.document = document;
+        }
+
+        boolean isExpired(long ttlSeconds) {
+            return System.currentTimeMillis() - loadedAtMillis > ttlSeconds * 1000;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.snp.backend.service;
+
+import com.snp.backend.model.User;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.stereotype.Component;
+
+/**
+ * Evicts users from {@link UserCache} on every save/delete that goes through
+ * the Mongo mapping layer (repositories and MongoTemplate entity operations).
+ */
+@Component
+public class UserCacheInvalidationListener extends AbstractMongoEventListener<User> {
+
+    @Autowired
+    private UserCache userCache;
+
+    @Override
+    public void onAfterSave(AfterSaveEvent<User> event) {
+        String id = event.getSource().getId();
+        if (id != null) {
+            userCache.evict(id);
+        } else {
+            userCache.evictAll();
+        }
+    }
+
+    @Override
+    public void onAfterDelete(AfterDeleteEvent<User> event) {
+        // The source is the delete filter; a single-id delete can be evicted precisely
+        Document filter = event.getSource();
+        Object id = filter != null ? filter.get("_id") : null;
+        if (id != null && !(id instanceof Document)) {
+            userCache.evict(id.toString());
+        } else {
+            userCache.evictAll();
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.snp.backend.service;
+
+import com.snp.backend.model.User;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Member directory queries: server-side filters, keyset pagination on _id and a
+ * projection that never reads passwordHash from the database.
+ */
+@Service
+public class UserDirectoryService {
+
+    private static final Logger log = LoggerFactory.getLogger(UserDirectoryService.class);
+
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 200;
+
+    // Fields a client may request; passwordHash is deliberately absent
+    public static final Set<String> DIRECTORY_FIELDS = Set.of(
+            "email", "displayName", "avatarUrl", "bio", "active", "domains", "department", "year", "section",
+            "registerNumber", "mobileNumber", "leadOfDomain", "role", "createdAt");
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureIndexes() {
+        try {
+            IndexOperations indexOps = mongoTemplate.indexOps(User.class);
+            // Each filter is an equality prefix followed by _id, so the keyset sort uses the index
+            indexOps.ensureIndex(new Index().on("domains", Sort.Direction.ASC).on("_id", Sort.Direction.ASC));
+            indexOps.ensureIndex(new Index().on("department", Sort.Direction.ASC).on("year", Sort.Direction.ASC)
+                    .on("section", Sort.Direction.ASC).on("_id", Sort.Direction.ASC));
+            indexOps.ensureIndex(new Index().on("year", Sort.Direction.ASC).on("section", Sort.Direction.ASC)
+                    .on("_id", Sort.Direction.ASC));
+            indexOps.ensureIndex(new Index().on("role", Sort.Direction.ASC).on("_id", Sort.Direction.ASC));
+        } catch (Exception e) {
+            log.warn("Could not create user directory indexes: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Returns one page of users ordered by _id.
+     *
+     * @param after  _id of the last user of the previous page, or null for the
+     *               first page
+     * @param fields fields to return (subset of {@link #DIRECTORY_FIELDS}), or
+     *               empty for all of them
+     * @throws IllegalArgumentException for an invalid cursor, role or field
+     */
+    public Page find(Filter filter, String after, int limit, Collection<String> fields) {
+        Criteria criteria = new Criteria();
+        if (filter.domain != null)
+            criteria.and("domains").is(filter.domain);
+        if (filter.department != null)
+            criteria.and("department").is(filter.department);
+        if (filter.year != null)
+            criteria.and("year").is(filter.year);
+        if (filter.section != null)
+            criteria.and("section").is(filter.section);
+        if (filter.role != null)
+            criteria.and("role").is(User.Role.valueOf(filter.role));
+        if (after != null) {
+            if (!ObjectId.isValid(after)) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            criteria.and("_id").gt(new ObjectId(after));
+        }
+
+        int pageSize = Math.min(Math.max(limit, 1), MAX_LIMIT);
+        Query query = new Query(criteria).with(Sort.by(Sort.Direction.ASC, "_id")).limit(pageSize + 1);
+
+        Collection<String> projected = fields == null || fields.isEmpty() ? DIRECTORY_FIELDS : fields;
+        for (String field : projected) {
+            if (!DIRECTORY_FIELDS.contains(field)) {
+                throw new IllegalArgumentException("Unknown field: " + field);
+            }
+            query.fields().include(field);
+        }
+
+        List<User> users = new ArrayList<>(mongoTemplate.find(query, User.class));
+        String nextCursor = null;
+        if (users.size() > pageSize) {
+            users = users.subList(0, pageSize);
+            nextCursor = users.get(pageSize - 1).getId();
+        }
+        return new Page(users, nextCursor);
+    }
+
+    public static class Filter {
+        private final String domain;
+        private final String department;
+        private final String year;
+        private final String section;
+        private final String role;
+
+        public Filter(String domain, String department, String year, String section, String role) {
+            this.domain = blankToNull(domain);
+            this.department = blankToNull(department);
+            this.year = blankToNull(year);
+            this.section = blankToNull(section);
+            this.role = blankToNull(role);
+        }
+
+        private static String blankToNull(String value) {
+            return value == null || value.isBlank() ? null : value;
+        }
+    }
+
+    public static class Page {
+        private final List<User> users;
+        private final String nextCursor;
+
+        public Page(List<User> users, String nextCursor) {
+            this.users = users;
+            this.nextCursor = nextCursor;
+        }
+
+        public List<User> getUsers() {
+            return users;
+        }
+
+        // Null on the last page
+        public String getNextCursor() {
+            return nextCursor;
+        }
+    }
+}
@@ -0,0 +1,334 @@
+package com.snp.backend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+import org.springframework.web.socket.handler.WebSocketSessionDecorator;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-session outbound flow control for the STOMP endpoint.
+ *
+ * Every broker message to a session is counted as pending from the moment it
+ * enters the client outbound channel until the frame has been written to the
+ * socket. While a session has more than {@code cursorQueueLimit} pending
+ * frames, cursor messages for it are parked in a small per-session queue that
+ * drops its oldest entry when full, and are released once the session catches
+ * up. Node messages are never dropped. A session that stays backlogged for
+ * longer than {@code evictAfterMs} is closed so it stops holding outbound
+ * threads.
+ *
+ * Messages that never reach the socket (dropped by a later interceptor or
+ * refused by the channel's executor) stop counting in afterSendCompletion, and
+ * a session's pending count and parked cursors are cleared when it closes.
+ * Per-project stats cover projects with a connected session; totals are kept
+ * separately so they survive a project's last session leaving.
+ */
+@Service
+public class WebSocketSessionMonitor implements ChannelInterceptor {
+
+    private static final Logger log = LoggerFactory.getLogger(WebSocketSessionMonitor.class);
+
+    @Value("${websocket.outbound.cursor-queue-limit:32}")
+    private int cursorQueueLimit;
+
+    @Value("${websocket.outbound.deferred-cursor-capacity:16}")
+    private int deferredCursorCapacity;
+
+    @Value("${websocket.slow-consumer.pending-threshold:256}")
+    private int slowPendingThreshold;
+
+    @Value("${websocket.slow-consumer.evict-after-ms:15000}")
+    private long evictAfterMs;
+
+    private final Map<String, SessionState> sessions = new ConcurrentHashMap<>();
+    private final Map<String, ProjectStats> projects = new ConcurrentHashMap<>();
+    private final AtomicLong evictedSessions = new AtomicLong();
+    private final AtomicLong droppedCursors = new AtomicLong();
+
+    private volatile MessageChannel outboundChannel;
+
+    // --- Outbound channel interceptor ---
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(message);
+        String sessionId = accessor.getSessionId();
+        SessionState state = sessionId != null ? sessions.get(sessionId) : null;
+        if (state == null) {
+            return message;
+        }
+        outboundChannel = channel;
+
+        String destination = accessor.getDestination();
+        String projectId = BoardDestinations.projectId(destination);
+        boolean isBrokerMessage = accessor.getMessageType() == SimpMessageType.MESSAGE;
+
+        if (isBrokerMessage && BoardDestinations.isCursors(destination)
+                && state.pending.get() >= cursorQueueLimit && !state.releasing.get()) {
+            if (state.defer(message, deferredCursorCapacity)) {
+                state.droppedCursors.incrementAndGet();
+                droppedCursors.incrementAndGet();
+                if (projectId != null) {
+                    projectStats(projectId).droppedCursors.incrementAndGet();
+                }
+            }
+            return null;
+        }
+
+        state.pending.incrementAndGet();
+        if (isBrokerMessage && projectId != null) {
+            state.projectId = projectId;
+            projectStats(projectId).sent.incrementAndGet();
+        }
+        return message;
+    }
+
+    @Override
+    public void afterSendCompletion(Message<?> message, MessageChannel channel, boolean sent, Exception ex) {
+        if (sent && ex == null) {
+            return;
+        }
+        // Counted in preSend but never reaches sendMessage: a later interceptor
+        // dropped it or the channel's executor refused it
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+        SessionState state = sessionId != null ? sessions.get(sessionId) : null;
+        if (state != null && state.pending.decrementAndGet() < cursorQueueLimit) {
+            releaseDeferred(state);
+        }
+    }
+
+    // --- Session decoration ---
+
+    public WebSocketHandler decorate(WebSocketHandler handler) {
+        return new WebSocketHandlerDecorator(handler) {
+            @Override
+            public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+                MonitoredSession monitored = new MonitoredSession(session);
+                sessions.put(session.getId(), monitored.state);
+                super.afterConnectionEstablished(monitored);
+            }
+
+            @Override
+            public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+                SessionState state = sessions.remove(session.getId());
+                if (state != null) {
+                    state.clear();
+                }
+                super.afterConnectionClosed(session, closeStatus);
+            }
+        };
+    }
+
+    private class MonitoredSession extends WebSocketSessionDecorator {
+        private final SessionState state;
+
+        MonitoredSession(WebSocketSession delegate) {
+            super(delegate);
+            this.state = new SessionState(delegate);
+        }
+
+        @Override
+        public void sendMessage(WebSocketMessage<?> message) throws IOException {
+            long started = System.nanoTime();
+            state.sendStartedAt = started;
+            try {
+                super.sendMessage(message);
+            } finally {
+                state.sendStartedAt = 0;
+                long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+                state.maxSendMs.accumulateAndGet(elapsedMs, Math::max);
+                state.sent.incrementAndGet();
+                if (state.pending.decrementAndGet() < cursorQueueLimit) {
+                    releaseDeferred(state);
+                }
+            }
+        }
+    }
+
+    private void releaseDeferred(SessionState state) {
+        MessageChannel channel = outboundChannel;
+        if (channel == null || !state.releasing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            for (Message<?> deferred : state.drainDeferred()) {
+                channel.send(deferred);
+            }
+        } finally {
+            state.releasing.set(false);
+        }
+    }
+
+    // --- Slow consumer eviction ---
+
+    @Scheduled(fixedDelayString = "${websocket.slow-consumer.check-interval-ms:1000}")
+    public void evictSlowSessions() {
+        long now = System.nanoTime();
+        for (SessionState state : sessions.values()) {
+            long sendStartedAt = state.sendStartedAt;
+            boolean backlogged = state.pending.get() >= slowPendingThreshold
+                    || (sendStartedAt != 0 && (now - sendStartedAt) / 1_000_000 >= evictAfterMs);
+
+            if (!backlogged) {
+                state.slowSince = 0;
+                continue;
+            }
+            if (state.slowSince == 0) {
+                state.slowSince = now;
+                continue;
+            }
+            if ((now - state.slowSince) / 1_000_000 >= evictAfterMs) {
+                evict(state);
+            }
+        }
+        pruneProjects();
+    }
+
+    // Project ids come from client subscriptions, so only projects with a live session are kept
+    private void pruneProjects() {
+        Set<String> live = new HashSet<>();
+        for (SessionState state : sessions.values()) {
+            if (state.projectId != null) {
+                live.add(state.projectId);
+            }
+        }
+        projects.keySet().retainAll(live);
+    }
+
+    private void evict(SessionState state) {
+        sessions.remove(state.session.getId());
+        state.clear();
+        evictedSessions.incrementAndGet();
+        if (state.projectId != null) {
+            projectStats(state.projectId).evictedSessions.incrementAndGet();
+        }
+        log.warn("Evicting slow WebSocket session {} (pending {})", state.session.getId(), state.pending.get());
+        try {
+            state.session.close(CloseStatus.SESSION_NOT_RELIABLE);
+        } catch (IOException e) {
+            // Already gone
+        }
+    }
+
+    // --- Metrics ---
+
+    public List<Map<String, Object>> getSessionStats() {
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (SessionState state : sessions.values()) {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("sessionId", state.session.getId());
+            stats.put("projectId", state.projectId);
+            stats.put("pending", state.pending.get());
+            stats.put("sent", state.sent.get());
+            stats.put("droppedCursors", state.droppedCursors.get());
+            stats.put("maxSendMs", state.maxSendMs.get());
+            stats.put("slow", state.slowSince != 0);
+            result.add(stats);
+        }
+        return result;
+    }
+
+    public Map<String, Map<String, Long>> getProjectStats() {
+        Map<String, Map<String, Long>> result = new LinkedHashMap<>();
+        projects.forEach((projectId, stats) -> {
+            Map<String, Long> values = new LinkedHashMap<>();
+            values.put("sent", stats.sent.get());
+            values.put("droppedCursors", stats.droppedCursors.get());
+            values.put("evictedSessions", stats.evictedSessions.get());
+            result.put(projectId, values);
+        });
+        return result;
+    }
+
+    public int getSessionCount() {
+        return sessions.size();
+    }
+
+    public long getEvictedSessions() {
+        return evictedSessions.get();
+    }
+
+    public long getDroppedCursors() {
+        return droppedCursors.get();
+    }
+
+    private ProjectStats projectStats(String projectId) {
+        return projects.computeIfAbsent(projectId, id -> new ProjectStats());
+    }
+
+    private static class SessionState {
+        private final WebSocketSession session;
+        private final AtomicInteger pending = new AtomicInteger();
+        private final AtomicLong sent = new AtomicLong();
+        private final AtomicLong droppedCursors = new AtomicLong();
+        private final AtomicLong maxSendMs = new AtomicLong();
+        private final AtomicBoolean releasing = new AtomicBoolean();
+        private final Deque<Message<?>> deferredCursors = new ArrayDeque<>();
+        private volatile long sendStartedAt;
+        private volatile long slowSince;
+        private volatile String projectId;
+
+        SessionState(WebSocketSession session) {
+            this.session = session;
+        }
+
+        /**
+         * Parks a cursor message, dropping the oldest parked one if full.
+         *
+         * @return true if a message was dropped
+         */
+        synchronized boolean defer(Message<?> message, int capacity) {
+            boolean dropped = false;
+            if (deferredCursors.size() >= capacity) {
+                deferredCursors.pollFirst();
+                dropped = true;
+            }
+            deferredCursors.addLast(message);
+            return dropped;
+        }
+
+        // Frames still queued for a closed socket are never written
+        synchronized void clear() {
+            pending.set(0);
+            deferredCursors.clear();
+        }
+
+        synchronized List<Message<?>> drainDeferred() {
+            List<Message<?>> drained = new ArrayList<>(deferredCursors);
+            deferredCursors.clear();
+            return drained;
+        }
+    }
+
+    private static class ProjectStats {
+        private final AtomicLong sent = new AtomicLong();
+        private final AtomicLong droppedCursors = new AtomicLong();
+        private final AtomicLong evictedSessions = new AtomicLong();
+    }
+}
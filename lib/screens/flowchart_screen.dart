@@ -202,6 +202,15 @@ class _FlowchartScreenState extends State<FlowchartScreen> {
             } else {
               _nodes.add(newNode);
             }
+         } else if (type == 'DELTA' && msg['tool'] == 'flowchart') {
+            final idx = _nodes.indexWhere((n) => n.id == nodeId);
+            if (idx >= 0) {
+              final merged = _nodes[idx].toMap();
+              for (final field in const ['x', 'y', 'label']) {
+                if (msg[field] != null) merged[field] = msg[field];
+              }
+              _nodes[idx] = FlowNode.fromMap(merged);
+            }
          } else if (type == 'DELETE') {
             _nodes.removeWhere((n) => n.id == nodeId);
             _connections.removeWhere((c) => c.fromId == nodeId || c.toId == nodeId);
@@ -973,7 +982,7 @@ class _FlowchartScreenState extends State<FlowchartScreen> {
               n.x = p.dx;
               n.y = p.dy;
               _save();
-              _ws.sendNodeUpdate(_projectId, 'UPDATE', n.id, n.toMap());
+              _ws.sendNodeDelta(_projectId, 'flowchart', n.id, {'x': n.x, 'y': n.y});
             });
           },
           child: _buildNodeBox(n, selected: selected),
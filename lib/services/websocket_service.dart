@@ -17,7 +17,15 @@ class WebSocketService {
 
   bool get isConnected => _client?.connected ?? false;
 
+  // Lamport clock of the board and the last version applied per node; the
+  // server relays merged nodes stamped with their version
+  int _clock = 0;
+  final Map<String, int> _nodeVersions = {};
+
   void connect(String projectId, String userId) {
+    _clock = 0;
+    _nodeVersions.clear();
+
     // Deactivate existing client to close open sockets/attempts
     if (_client != null) {
       _client!.deactivate();
@@ -40,6 +48,8 @@ class WebSocketService {
     _client = StompClient(
       config: StompConfig(
         url: url,
+        // Lets the server attribute presence and edits to this user from the start
+        stompConnectHeaders: {'userId': userId},
         onConnect: (frame) => _onConnect(frame, projectId),
         onWebSocketError: (error) {
           print('WebSocket Error: $error');
@@ -70,7 +80,17 @@ class WebSocketService {
 
   void _onConnect(StompFrame frame, String projectId) {
     print('Connected to WebSocket');
-    
+
+    // The board's clock, so edits sent from here on order after what others already did
+    _client!.subscribe(
+      destination: '/app/project.$projectId.clock',
+      callback: (frame) {
+        if (frame.body == null) return;
+        final clock = jsonDecode(frame.body!)['clock'];
+        if (clock is int && clock > _clock) _clock = clock;
+      },
+    );
+
     // Subscribe to Cursor updates
     _client!.subscribe(
       destination: '/topic/project.$projectId.cursors',
@@ -86,7 +106,9 @@ class WebSocketService {
       destination: '/topic/project.$projectId',
       callback: (frame) {
         if (frame.body != null) {
-          _nodeController.add(jsonDecode(frame.body!));
+          final msg = jsonDecode(frame.body!);
+          if (_isStale(msg)) return;
+          _nodeController.add(msg);
         }
       },
     );
@@ -106,6 +128,26 @@ class WebSocketService {
     );
   }
 
+  // Drops a relayed node older than one already applied (frames can arrive out of order)
+  bool _isStale(Map<String, dynamic> msg) {
+    final clock = msg['clock'];
+    final nodeId = msg['nodeId'];
+    if (clock is! int || nodeId == null) return false;
+    if (clock > _clock) _clock = clock;
+    final type = msg['type'];
+    final tool = type == 'DELTA'
+        ? msg['tool']
+        : type == 'MINDMAP_UPDATE'
+            ? 'mindmap'
+            : type == 'TIMELINE_UPDATE'
+                ? 'timeline'
+                : 'flowchart';
+    final key = '$tool:$nodeId';
+    if ((_nodeVersions[key] ?? -1) > clock) return true;
+    _nodeVersions[key] = clock;
+    return false;
+  }
+
   void sendNodeUpdate(String projectId, String type, String nodeId, Map<String, dynamic> data) {
     if (!isConnected) return;
     _client!.send(
@@ -115,6 +157,22 @@ class WebSocketService {
         'projectId': projectId,
         'nodeId': nodeId,
         'data': data,
+        'clock': ++_clock,
+      }),
+    );
+  }
+
+  // Sends only the changed fields of a node (x, y, width, height, label)
+  void sendNodeDelta(String projectId, String tool, String nodeId, Map<String, dynamic> fields) {
+    if (!isConnected) return;
+    _client!.send(
+      destination: '/app/project.patchNode',
+      body: jsonEncode({
+        'tool': tool,
+        'projectId': projectId,
+        'nodeId': nodeId,
+        ...fields,
+        'clock': ++_clock,
       }),
     );
   }